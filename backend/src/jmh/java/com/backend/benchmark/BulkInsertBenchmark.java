@@ -0,0 +1,80 @@
+package com.backend.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second persisted through Hibernate with IDENTITY ids (the old mapping, one round trip per row)
+ * and with pooled sequence ids (JDBC batches of hibernate.jdbc.batch_size). Uses in-memory H2 by default;
+ * point it at MySQL to see the effect of rewriteBatchedStatements:
+ * -Djmh.args="BulkInsertBenchmark -jvmArgs -Dbench.jdbc.url=jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BulkInsertBenchmark.ROWS)
+public class BulkInsertBenchmark {
+
+    static final int ROWS = 1000;
+
+    @Param({ "identity", "pooled" })
+    public String ids;
+
+    private SessionFactory sessionFactory;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addResource("benchmark/scan-row-" + ids + ".orm.xml")
+                .setProperty("hibernate.connection.url",
+                        System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1"))
+                .setProperty("hibernate.connection.username", System.getProperty("bench.jdbc.username", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("bench.jdbc.password", ""))
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                // Same settings as application.properties
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void saveAll() {
+        LocalDateTime now = LocalDateTime.now();
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                long n = next++;
+                session.persist(new ScanRow(n % 10_000, String.format("869%09d", n % 1_000_000_000),
+                        "Benchmark Product " + n, (n & 1) == 0, now));
+            }
+            session.getTransaction().commit();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.benchmark;
+
+import com.backend.cache.AllergenIndex;
+import com.backend.cache.DangerousIngredientIndex;
+import com.backend.dto.ProductDetailRow;
+import com.backend.model.Allergy;
+import com.backend.model.DangerousIngredients;
+import com.backend.model.Ingredient;
+import com.backend.model.Product;
+import com.backend.repository.AllergyRepository;
+import com.backend.repository.DangerousIngredientsRepository;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deterministic in-memory catalog shared by the benchmarks, shaped like the seeded database.
+ */
+final class CatalogFixtures {
+
+    static final Long USER_ID = 42L;
+
+    static final String USER_EMAIL = "bench@scanme.com";
+
+    static final List<String> ALLERGIES = List.of("Peanuts", "Tree Nuts", "Milk (Dairy)", "Eggs", "Soy", "Gluten",
+            "Fish", "Shellfish", "Sesame", "Mustard", "Molluscs", "Sulfites");
+
+    static final List<DangerousIngredients> DANGEROUS_INGREDIENTS = List.of(
+            new DangerousIngredients("Aspartame (E951)", 8),
+            new DangerousIngredients("Monosodium Glutamate (MSG, E621)", 6),
+            new DangerousIngredients("Sodium Nitrite (E250)", 9),
+            new DangerousIngredients("Tartrazine (E102)", 7),
+            new DangerousIngredients("High Fructose Corn Syrup", 7),
+            new DangerousIngredients("Palm Oil", 5),
+            new DangerousIngredients("Sodium Benzoate (E211)", 6),
+            new DangerousIngredients("Butylated Hydroxyanisole (BHA, E320)", 8),
+            new DangerousIngredients("Carrageenan (E407)", 5),
+            new DangerousIngredients("Potassium Bromate (E924)", 9));
+
+    static final List<String> PLAIN_INGREDIENTS = List.of("Sugar", "Water", "Salt", "Wheat Flour", "Skimmed Milk Powder",
+            "Cocoa Butter", "Hazelnuts", "Soy Lecithin", "Egg Yolk", "Sunflower Oil", "Yeast", "Vanilla Extract",
+            "Citric Acid", "Barley Malt", "Sesame Seeds", "Whey Powder", "Rice", "Corn Starch");
+
+    private CatalogFixtures() {
+    }
+
+    static Product product(String barcode, int ingredientCount, long seed) {
+        Random random = new Random(seed);
+        List<Ingredient> ingredients = new ArrayList<>(ingredientCount);
+        for (int i = 0; i < ingredientCount; i++) {
+            String name = random.nextInt(4) == 0
+                    ? DANGEROUS_INGREDIENTS.get(random.nextInt(DANGEROUS_INGREDIENTS.size())).getNameOfGradient()
+                    : PLAIN_INGREDIENTS.get(random.nextInt(PLAIN_INGREDIENTS.size()));
+            ingredients.add(new Ingredient(name, null));
+        }
+        return new Product(barcode, "Benchmark Product " + seed, ingredients);
+    }
+
+    /**
+     * The rows the product detail projection returns for the product, joined against the dangerous ingredients.
+     */
+    static List<ProductDetailRow> detailRows(Product product) {
+        List<ProductDetailRow> rows = new ArrayList<>();
+        for (Ingredient ingredient : product.getIngredients()) {
+            DangerousIngredients dangerous = DANGEROUS_INGREDIENTS.stream()
+                    .filter(d -> d.getNameOfGradient().equalsIgnoreCase(ingredient.getName()))
+                    .findFirst()
+                    .orElse(null);
+            rows.add(new ProductDetailRow(product.getBarcode(), product.getProductName(), ingredient.getName(),
+                    dangerous == null ? null : dangerous.getNameOfGradient(),
+                    dangerous == null ? null : dangerous.getDangerLevel()));
+        }
+        return rows;
+    }
+
+    static DangerousIngredientIndex dangerousIngredientIndex() {
+        DangerousIngredientsRepository repository = mock(DangerousIngredientsRepository.class);
+        when(repository.findAll()).thenReturn(DANGEROUS_INGREDIENTS);
+        DangerousIngredientIndex index = new DangerousIngredientIndex(repository);
+        index.refresh();
+        return index;
+    }
+
+    static AllergenIndex allergenIndex() {
+        List<Allergy> allergies = new ArrayList<>();
+        for (int i = 0; i < ALLERGIES.size(); i++) {
+            Allergy allergy = new Allergy(ALLERGIES.get(i), null);
+            allergy.setId((long) i + 1);
+            allergies.add(allergy);
+        }
+        AllergyRepository repository = mock(AllergyRepository.class);
+        when(repository.findAll(any(Sort.class))).thenReturn(allergies);
+        AllergenIndex index = new AllergenIndex(repository, 100_000);
+        index.refresh();
+        return index;
+    }
+}
@@ -0,0 +1,86 @@
+package com.backend.benchmark;
+
+import com.backend.dto.HistoryDto;
+import com.backend.ingest.HistoryBatchWriter;
+import com.backend.model.History;
+import com.backend.repository.HistoryRepository;
+import com.backend.service.HistoryService;
+import com.backend.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * History listing for one user. {@code getUserHistory} reads the dto projection the repository
+ * returns; {@code entityMapping} is the per-entity copy the service used to do for the same rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryServiceBenchmark {
+
+    private static final Long USER_ID = 42L;
+
+    @Param({ "50", "1000" })
+    public int rows;
+
+    private HistoryService historyService;
+    private List<History> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(rows);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        entities = new ArrayList<>(rows);
+        List<HistoryDto> dtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String barcode = "869" + String.format("%09d", random.nextInt(1_000_000_000));
+            History history = new History(barcode, "Benchmark Product " + i, random.nextBoolean(),
+                    now.minusMinutes(i), null);
+            history.setId((long) rows - i);
+            entities.add(history);
+            dtos.add(new HistoryDto(history.getId(), history.getBarcode(), history.getProductName(),
+                    history.getIsSafe(), history.getScanDate()));
+        }
+
+        HistoryRepository historyRepository = mock(HistoryRepository.class);
+        when(historyRepository.findDtosByUserId(USER_ID)).thenReturn(dtos);
+        historyService = new HistoryService(historyRepository, mock(UserService.class), 20, 100, 500,
+                mock(HistoryBatchWriter.class), Optional.empty());
+    }
+
+    @Benchmark
+    public List<HistoryDto> getUserHistory() {
+        return historyService.getUserHistory(USER_ID);
+    }
+
+    @Benchmark
+    public List<HistoryDto> entityMapping() {
+        return entities.stream()
+                .map(h -> new HistoryDto(h.getId(), h.getBarcode(), h.getProductName(), h.getIsSafe(),
+                        h.getScanDate()))
+                .toList();
+    }
+}
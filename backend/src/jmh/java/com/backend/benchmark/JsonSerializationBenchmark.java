@@ -0,0 +1,55 @@
+package com.backend.benchmark;
+
+import com.backend.dto.DangerousIngredientDto;
+import com.backend.dto.ProductDetailDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body cost of GET /products/search, using an ObjectMapper built the way Spring Boot builds it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ProductDetailDto productDetail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productDetail = new ProductDetailDto(
+                "8690504020509",
+                "Benchmark Product",
+                List.of("Sugar", "Wheat Flour", "Palm Oil", "Hazelnuts", "Skimmed Milk Powder", "Cocoa Butter",
+                        "Soy Lecithin", "Aspartame (E951)", "Salt", "Vanilla Extract"),
+                List.of(new DangerousIngredientDto("Aspartame (E951)", 8), new DangerousIngredientDto("Palm Oil", 5)),
+                0L);
+        productDetail.setDetectedAllergens(List.of("Gluten", "Milk (Dairy)"));
+        productDetail.setIsSafe(false);
+    }
+
+    @Benchmark
+    public byte[] serializeProductDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productDetail);
+    }
+}
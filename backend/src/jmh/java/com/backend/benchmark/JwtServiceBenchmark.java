@@ -0,0 +1,82 @@
+package com.backend.benchmark;
+
+import com.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token CPU cost. {@code perRequestAuthentication} is what JwtAuthFilter does per request today
+ * (one parse); {@code perRequestAuthenticationUncached} repeats the original filter path, which
+ * decoded the key and parsed the token three times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // Same key as application.properties
+    private static final String SECRET_KEY =
+            "irno4AkVaLV28I2kyqvgUwAJpCL5u6KEcR8WsGOQDbVv9A9eBaWDXeeHnE3af2jnaybCppT8b8x3uBOnE5LiSA==";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(SECRET_KEY, new SimpleMeterRegistry());
+        token = "Bearer " + jwtService.generateToken(42L, CatalogFixtures.USER_EMAIL, "USER", 0);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(42L, CatalogFixtures.USER_EMAIL, "USER", 0);
+    }
+
+    @Benchmark
+    public String extractMail() {
+        return jwtService.extractMail(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, CatalogFixtures.USER_EMAIL);
+    }
+
+    @Benchmark
+    public Claims perRequestAuthentication() {
+        return jwtService.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean perRequestAuthenticationUncached() {
+        String jwt = token.substring(7);
+        String email = parseUncached(jwt).getSubject();
+        return parseUncached(jwt).getExpiration().getTime() > System.currentTimeMillis()
+                && email.equals(parseUncached(jwt).getSubject());
+    }
+
+    private static Claims parseUncached(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+    }
+}
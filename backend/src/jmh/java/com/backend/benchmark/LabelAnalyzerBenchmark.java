@@ -0,0 +1,58 @@
+package com.backend.benchmark;
+
+import com.backend.analyzer.IngredientLabelAnalyzer;
+import com.backend.dto.LabelMatchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of POST /labels/analyze on generated label text of the given length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LabelAnalyzerBenchmark {
+
+    @Param({ "500", "5000" })
+    public int length;
+
+    private IngredientLabelAnalyzer analyzer;
+    private String label;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        analyzer = new IngredientLabelAnalyzer(CatalogFixtures.dangerousIngredientIndex(), 20000);
+        analyzer.refresh();
+
+        Random random = new Random(length);
+        List<String> words = List.of("sugar", "e951", "msg", "palm oil", "E-250", "wheat flour", "tartrazine",
+                "emulsifier", "cocoa", "sodium benzoate", "natural flavouring", "salt", "E 407", "glucose syrup");
+        StringBuilder text = new StringBuilder("Ingredients: ");
+        while (text.length() < length) {
+            text.append(words.get(random.nextInt(words.size()))).append(", ");
+        }
+        label = text.substring(0, length);
+    }
+
+    @Benchmark
+    public List<LabelMatchDto> analyze() {
+        return analyzer.analyze(label);
+    }
+}
@@ -0,0 +1,101 @@
+package com.backend.benchmark;
+
+import com.backend.cache.AllergenIndex;
+import com.backend.cache.BarcodeFilter;
+import com.backend.cache.ProductDetailCache;
+import com.backend.cache.UserAllergenMaskCache;
+import com.backend.dto.ProductDetailDto;
+import com.backend.dto.ProductDetailRow;
+import com.backend.repository.AllergyRepository;
+import com.backend.repository.ProductRepository;
+import com.backend.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Product lookup against a mocked repository, so only the service, allergen index and cache work is measured.
+ * {@code cold} disables the detail cache and rebuilds the dto on every call; {@code warm} is the cache hit path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int PRODUCTS = 1000;
+
+    @Param({ "cold", "warm" })
+    public String cache;
+
+    @Param({ "12" })
+    public int ingredientsPerProduct;
+
+    private ProductService productService;
+    private String[] barcodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, List<ProductDetailRow>> products = new HashMap<>();
+        barcodes = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            barcodes[i] = "869" + String.format("%09d", i);
+            products.put(barcodes[i],
+                    CatalogFixtures.detailRows(CatalogFixtures.product(barcodes[i], ingredientsPerProduct, i)));
+        }
+
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findDetailRowsByBarcode(anyString()))
+                .thenAnswer(invocation -> products.getOrDefault(invocation.<String>getArgument(0), List.of()));
+
+        AllergenIndex allergenIndex = CatalogFixtures.allergenIndex();
+        UserAllergenMaskCache userAllergenMaskCache = new UserAllergenMaskCache(1000, Duration.ofHours(1));
+        userAllergenMaskCache.put(CatalogFixtures.USER_ID,
+                allergenIndex.allergyBit("Gluten") | allergenIndex.allergyBit("Milk (Dairy)"));
+
+        ProductDetailCache productDetailCache = new ProductDetailCache("cold".equals(cache) ? 0 : PRODUCTS * 2,
+                Duration.ofHours(1));
+        // Never built, so every barcode passes through to the cache and repository
+        BarcodeFilter barcodeFilter = new BarcodeFilter(mock(JdbcTemplate.class), 0.01, PRODUCTS, PRODUCTS,
+                Duration.ofMinutes(1), Duration.ZERO);
+        productService = new ProductService(productRepository, productDetailCache, barcodeFilter, allergenIndex,
+                userAllergenMaskCache, mock(AllergyRepository.class), 50, new SimpleMeterRegistry());
+
+        if ("warm".equals(cache)) {
+            for (String barcode : barcodes) {
+                productService.getProductDetailsForUser(barcode, CatalogFixtures.USER_ID);
+            }
+        }
+    }
+
+    @Benchmark
+    public ProductDetailDto getProductDetailsForUser() {
+        String barcode = barcodes[next];
+        next = (next + 1) % PRODUCTS;
+        return productService.getProductDetailsForUser(barcode, CatalogFixtures.USER_ID);
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.benchmark;
+
+import com.backend.BackendApplication;
+import com.backend.dto.ProductDetailDto;
+import com.backend.repository.ProductRepository;
+import com.backend.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product lookup through the full Spring context against an embedded H2 database filled by the
+ * data seeder. The detail cache is disabled so every call runs the repository query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceDbBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private String[] barcodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(BackendApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--product-cache.maximum-size=0",
+                "--history.write-behind.enabled=false",
+                "--logging.level.root=WARN");
+        productService = context.getBean(ProductService.class);
+        barcodes = context.getBean(ProductRepository.class).findAll().stream()
+                .map(p -> p.getBarcode())
+                .toArray(String[]::new);
+        if (barcodes.length == 0) {
+            throw new IllegalStateException("The data seeder did not create any products");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDetailDto getProductDetailsForUser() {
+        String barcode = barcodes[next];
+        next = (next + 1) % barcodes.length;
+        return productService.getProductDetailsForUser(barcode, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.backend.benchmark;
+
+import java.time.LocalDateTime;
+
+/**
+ * scan_history shaped row for {@link BulkInsertBenchmark}. Mapped only through the orm.xml files under
+ * benchmark/, so the application's entity scan never picks it up.
+ */
+public class ScanRow {
+
+    private Long id;
+    private Long userId;
+    private String barcode;
+    private String productName;
+    private Boolean isSafe;
+    private LocalDateTime scanDate;
+
+    public ScanRow() {
+    }
+
+    public ScanRow(Long userId, String barcode, String productName, Boolean isSafe, LocalDateTime scanDate) {
+        this.userId = userId;
+        this.barcode = barcode;
+        this.productName = productName;
+        this.isSafe = isSafe;
+        this.scanDate = scanDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Boolean getIsSafe() {
+        return isSafe;
+    }
+
+    public void setIsSafe(Boolean isSafe) {
+        this.isSafe = isSafe;
+    }
+
+    public LocalDateTime getScanDate() {
+        return scanDate;
+    }
+
+    public void setScanDate(LocalDateTime scanDate) {
+        this.scanDate = scanDate;
+    }
+}
@@ -0,0 +1,164 @@
+package com.backend.analyzer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable multi-pattern matcher. Patterns are compiled into a full transition table
+ * (trie edges plus failure links folded in), so scanning costs one array read per character
+ * regardless of how many patterns there are. Matching is case-insensitive.
+ */
+public final class AhoCorasickAutomaton {
+
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int patternId, int start, int end);
+    }
+
+    private final int[] asciiSymbols;
+    private final Map<Character, Integer> otherSymbols;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final int[] patternLengths;
+
+    private AhoCorasickAutomaton(int[] asciiSymbols, Map<Character, Integer> otherSymbols, int alphabetSize,
+            int[] transitions, int[][] outputs, int[] patternLengths) {
+        this.asciiSymbols = asciiSymbols;
+        this.otherSymbols = otherSymbols;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.patternLengths = patternLengths;
+    }
+
+    /**
+     * Compiles the patterns; the id reported for a match is the pattern's index in the list.
+     */
+    public static AhoCorasickAutomaton build(List<String> patterns) {
+        int[] asciiSymbols = new int[128];
+        Arrays.fill(asciiSymbols, -1);
+        Map<Character, Integer> otherSymbols = new HashMap<>();
+        int alphabetSize = 0;
+
+        List<String> lowered = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            String p = pattern.toLowerCase(Locale.ROOT);
+            lowered.add(p);
+            for (int i = 0; i < p.length(); i++) {
+                char c = p.charAt(i);
+                if (c < 128) {
+                    if (asciiSymbols[c] < 0) {
+                        asciiSymbols[c] = alphabetSize++;
+                    }
+                } else if (!otherSymbols.containsKey(c)) {
+                    otherSymbols.put(c, alphabetSize++);
+                }
+            }
+        }
+        int width = Math.max(alphabetSize, 1);
+
+        // Trie
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        children.add(emptyRow(width));
+        matches.add(new ArrayList<>());
+        int[] patternLengths = new int[lowered.size()];
+        for (int id = 0; id < lowered.size(); id++) {
+            String p = lowered.get(id);
+            patternLengths[id] = p.length();
+            if (p.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < p.length(); i++) {
+                int symbol = symbol(asciiSymbols, otherSymbols, p.charAt(i));
+                int next = children.get(state)[symbol];
+                if (next < 0) {
+                    next = children.size();
+                    children.get(state)[symbol] = next;
+                    children.add(emptyRow(width));
+                    matches.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            matches.get(state).add(id);
+        }
+
+        // Breadth-first pass computes failure links and fills in the missing transitions
+        int stateCount = children.size();
+        int[] fail = new int[stateCount];
+        int[] transitions = new int[stateCount * width];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < width; symbol++) {
+            int child = children.get(0)[symbol];
+            if (child < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(fail[state]));
+            for (int symbol = 0; symbol < width; symbol++) {
+                int child = children.get(state)[symbol];
+                int fallback = transitions[fail[state] * width + symbol];
+                if (child < 0) {
+                    transitions[state * width + symbol] = fallback;
+                } else {
+                    transitions[state * width + symbol] = child;
+                    fail[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        int[][] outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            outputs[state] = matches.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new AhoCorasickAutomaton(asciiSymbols, Map.copyOf(otherSymbols), width, transitions, outputs,
+                patternLengths);
+    }
+
+    /**
+     * Reports every occurrence of every pattern in a single left-to-right pass.
+     * Offsets are char positions in the original text, end exclusive.
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbol(asciiSymbols, otherSymbols, Character.toLowerCase(text.charAt(i)));
+            state = symbol < 0 ? 0 : transitions[state * alphabetSize + symbol];
+            for (int patternId : outputs[state]) {
+                handler.onMatch(patternId, i + 1 - patternLengths[patternId], i + 1);
+            }
+        }
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    private static int symbol(int[] asciiSymbols, Map<Character, Integer> otherSymbols, char c) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        Integer symbol = otherSymbols.get(c);
+        return symbol == null ? -1 : symbol;
+    }
+
+    private static int[] emptyRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,147 @@
+package com.backend.analyzer;
+
+import com.backend.cache.DangerousIngredientIndex;
+import com.backend.dto.LabelMatchDto;
+import com.backend.event.CatalogChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import com.backend.model.DangerousIngredients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds dangerous ingredients in free-form label text (OCR output, partner feeds).
+ * Every dangerous ingredient contributes its full name, the name without the parenthesised
+ * part, each synonym inside the parentheses and any E-numbers it mentions.
+ */
+@Component
+public class IngredientLabelAnalyzer {
+
+    private static final Pattern E_NUMBER = Pattern.compile("\\be\\s?-?(\\d{3,4}[a-z]?)\\b");
+
+    private final DangerousIngredientIndex dangerousIngredientIndex;
+    private final int maxLength;
+
+    private volatile Compiled compiled;
+
+    public IngredientLabelAnalyzer(DangerousIngredientIndex dangerousIngredientIndex,
+            @Value("${label-analyzer.max-length:20000}") int maxLength) {
+        this.dangerousIngredientIndex = dangerousIngredientIndex;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the leftmost-longest, non-overlapping matches in text order.
+     */
+    public List<LabelMatchDto> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("text must not be blank");
+        }
+        if (text.length() > maxLength) {
+            throw new InvalidRequestException("text must be at most " + maxLength + " characters");
+        }
+
+        Compiled c = current();
+        List<int[]> hits = new ArrayList<>();
+        c.automaton.scan(text, (patternId, start, end) -> {
+            if (isBoundary(text, start - 1) && isBoundary(text, end)) {
+                hits.add(new int[] { patternId, start, end });
+            }
+        });
+        hits.sort(Comparator.<int[]>comparingInt(h -> h[1]).thenComparingInt(h -> -(h[2] - h[1])));
+
+        List<LabelMatchDto> result = new ArrayList<>();
+        int coveredUntil = 0;
+        for (int[] hit : hits) {
+            if (hit[1] < coveredUntil) {
+                continue;
+            }
+            DangerousIngredients di = c.owners.get(hit[0]);
+            result.add(new LabelMatchDto(di.getNameOfGradient(), text.substring(hit[1], hit[2]), hit[1], hit[2],
+                    di.getDangerLevel()));
+            coveredUntil = hit[2];
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.DANGEROUS_INGREDIENT) {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        List<String> patterns = new ArrayList<>();
+        List<DangerousIngredients> owners = new ArrayList<>();
+        for (DangerousIngredients di : dangerousIngredientIndex.all()) {
+            if (di.getNameOfGradient() == null) {
+                continue;
+            }
+            for (String pattern : patternsFor(di.getNameOfGradient())) {
+                patterns.add(pattern);
+                owners.add(di);
+            }
+        }
+        compiled = new Compiled(AhoCorasickAutomaton.build(patterns), List.copyOf(owners));
+    }
+
+    static Set<String> patternsFor(String name) {
+        String lower = name.trim().toLowerCase(Locale.ROOT);
+        Set<String> patterns = new LinkedHashSet<>();
+        patterns.add(lower);
+
+        int open = lower.indexOf('(');
+        if (open >= 0) {
+            int close = lower.indexOf(')', open);
+            patterns.add(lower.substring(0, open).trim());
+            String inner = lower.substring(open + 1, close < 0 ? lower.length() : close);
+            for (String synonym : inner.split("[,;/]")) {
+                String s = synonym.trim();
+                if (!s.isEmpty() && !s.startsWith("etc")) {
+                    patterns.add(s);
+                }
+            }
+        }
+
+        Matcher matcher = E_NUMBER.matcher(lower);
+        while (matcher.find()) {
+            String digits = matcher.group(1);
+            patterns.add("e" + digits);
+            patterns.add("e " + digits);
+            patterns.add("e-" + digits);
+        }
+
+        patterns.removeIf(String::isEmpty);
+        return patterns;
+    }
+
+    private Compiled current() {
+        Compiled c = compiled;
+        if (c == null) {
+            synchronized (this) {
+                if (compiled == null) {
+                    refresh();
+                }
+                c = compiled;
+            }
+        }
+        return c;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private record Compiled(AhoCorasickAutomaton automaton, List<DangerousIngredients> owners) {
+    }
+}
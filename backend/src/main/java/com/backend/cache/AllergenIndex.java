@@ -0,0 +1,196 @@
+package com.backend.cache;
+
+import com.backend.event.CatalogChangedEvent;
+import com.backend.model.Allergy;
+import com.backend.repository.AllergyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory allergy catalog. Assigns every {@link Allergy} row a bit in a 64-bit mask and maps
+ * ingredient names to the allergens they contain, so a product/user allergen check is a single
+ * AND of two masks. Bits follow allergy id order and are reassigned whenever the table changes.
+ * Ingredient masks are matched on first use and kept in a bounded cache, since imported labels
+ * bring an open-ended set of ingredient names.
+ */
+@Component
+public class AllergenIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllergenIndex.class);
+
+    // Same keyword lexicon the mobile app uses in ProductService.checkAllergens
+    private static final Map<String, List<String>> KEYWORDS = Map.ofEntries(
+            Map.entry("peanuts", List.of("peanut", "arachis")),
+            Map.entry("tree nuts", List.of("almond", "cashew", "walnut", "hazelnut", "pecan", "pistachio",
+                    "macadamia", "chestnut", "brazil nut")),
+            Map.entry("milk (dairy)", List.of("milk", "lactose", "cheese", "cream", "whey", "butter", "yogurt")),
+            Map.entry("eggs", List.of("egg", "albumin")),
+            Map.entry("soy", List.of("soy", "soya", "tofu", "lecithin")),
+            Map.entry("gluten", List.of("gluten", "wheat", "barley", "rye", "malt")),
+            Map.entry("fish", List.of("fish", "tuna", "salmon", "cod", "anchovy")),
+            Map.entry("shellfish", List.of("shellfish", "shrimp", "crab", "lobster", "prawn")),
+            Map.entry("sesame", List.of("sesame")),
+            Map.entry("mustard", List.of("mustard")),
+            Map.entry("molluscs", List.of("mollusc", "squid", "octopus", "mussel", "oyster", "clam")),
+            Map.entry("sulfites", List.of("sulfite", "sulphite", "sulfur dioxide", "sulphur dioxide")));
+
+    private final AllergyRepository allergyRepository;
+    private final long ingredientCacheSize;
+
+    private volatile Snapshot snapshot;
+
+    public AllergenIndex(AllergyRepository allergyRepository,
+            @Value("${allergen-index.ingredient-cache-size:100000}") long ingredientCacheSize) {
+        this.allergyRepository = allergyRepository;
+        this.ingredientCacheSize = ingredientCacheSize;
+    }
+
+    public long ingredientMask(String ingredientName) {
+        if (ingredientName == null) {
+            return 0L;
+        }
+        Snapshot s = current();
+        return s.ingredientMasks.get(normalize(ingredientName), s::match);
+    }
+
+    public long productMask(Collection<String> ingredientNames) {
+        long mask = 0L;
+        for (String name : ingredientNames) {
+            mask |= ingredientMask(name);
+        }
+        return mask;
+    }
+
+    public long allergyBit(String allergyName) {
+        if (allergyName == null) {
+            return 0L;
+        }
+        return current().bitsByName.getOrDefault(normalize(allergyName), 0L);
+    }
+
+    public long allergyMask(Collection<Allergy> allergies) {
+        long mask = 0L;
+        if (allergies != null) {
+            for (Allergy allergy : allergies) {
+                if (allergy != null) {
+                    mask |= allergyBit(allergy.getName());
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Id of the allergy with this name (case-insensitive), or null if there is none.
+     */
+    public Long allergyId(String allergyName) {
+        if (allergyName == null) {
+            return null;
+        }
+        return current().idsByName.get(normalize(allergyName));
+    }
+
+    public String allergyName(Long allergyId) {
+        return current().namesById.get(allergyId);
+    }
+
+    public List<String> allergyNames(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        List<String> namesByBit = current().namesByBit;
+        while (mask != 0L) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            if (bit < namesByBit.size()) {
+                names.add(namesByBit.get(bit));
+            }
+            mask &= mask - 1;
+        }
+        return names;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.ALLERGY) {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        List<Allergy> allergies = allergyRepository.findAll(Sort.by("id"));
+        if (allergies.size() > Long.SIZE) {
+            logger.warn("{} allergies found, only the first {} are used for allergen masks", allergies.size(), Long.SIZE);
+        }
+
+        List<String> namesByBit = new ArrayList<>();
+        List<List<String>> keywordsByBit = new ArrayList<>();
+        Map<String, Long> bitsByName = new HashMap<>();
+        Map<String, Long> idsByName = new HashMap<>();
+        Map<Long, String> namesById = new HashMap<>();
+        for (Allergy allergy : allergies) {
+            if (allergy.getName() == null) {
+                continue;
+            }
+            String key = normalize(allergy.getName());
+            idsByName.put(key, allergy.getId());
+            namesById.put(allergy.getId(), allergy.getName());
+            if (namesByBit.size() == Long.SIZE) {
+                continue;
+            }
+            bitsByName.put(key, 1L << namesByBit.size());
+            namesByBit.add(allergy.getName());
+            keywordsByBit.add(KEYWORDS.getOrDefault(key, List.of(key)));
+        }
+        snapshot = new Snapshot(List.copyOf(namesByBit), List.copyOf(keywordsByBit), Map.copyOf(bitsByName),
+                Map.copyOf(idsByName), Map.copyOf(namesById),
+                Caffeine.newBuilder().maximumSize(ingredientCacheSize).<String, Long>build());
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(List<String> namesByBit, List<List<String>> keywordsByBit, Map<String, Long> bitsByName,
+            Map<String, Long> idsByName, Map<Long, String> namesById, Cache<String, Long> ingredientMasks) {
+
+        long match(String ingredientName) {
+            long mask = 0L;
+            for (int bit = 0; bit < keywordsByBit.size(); bit++) {
+                for (String keyword : keywordsByBit.get(bit)) {
+                    if (ingredientName.contains(keyword)) {
+                        mask |= 1L << bit;
+                        break;
+                    }
+                }
+            }
+            return mask;
+        }
+    }
+}
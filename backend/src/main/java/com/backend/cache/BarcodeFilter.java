@@ -0,0 +1,263 @@
+package com.backend.cache;
+
+import com.backend.event.CatalogChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is this barcode definitely not in the catalog" without a database round trip.
+ * A Bloom filter over every product barcode is built at startup and extended on inserts;
+ * barcodes the filter lets through but the database does not have are remembered for a short
+ * time in a negative cache. Until the first build completes every barcode is reported as possible.
+ * Products written by other instances, the importer or the dataset generator never raise an
+ * event here, so a background task also catches up from product.updated_at every sync interval.
+ */
+@Component
+public class BarcodeFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarcodeFilter.class);
+
+    // updated_at is stamped before commit; re-reading a few seconds catches late commits
+    private static final long COMMIT_OVERLAP_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double falsePositiveRate;
+    private final long minimumExpectedInsertions;
+    private final Duration syncInterval;
+    private final Cache<String, Boolean> negativeCache;
+
+    private final AtomicLong definiteMisses = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private volatile Sized current;
+    private Timestamp syncedUpTo;
+    private ScheduledExecutorService syncExecutor;
+
+    private Counter absentCounter;
+    private Counter possibleCounter;
+    private Counter negativeHitCounter;
+
+    public BarcodeFilter(JdbcTemplate jdbcTemplate,
+            @Value("${barcode-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${barcode-filter.minimum-expected-insertions:100000}") long minimumExpectedInsertions,
+            @Value("${barcode-filter.negative-cache.maximum-size:100000}") long negativeCacheSize,
+            @Value("${barcode-filter.negative-cache.ttl:1m}") Duration negativeCacheTtl,
+            @Value("${barcode-filter.sync-interval:10s}") Duration syncInterval) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("barcode-filter.false-positive-rate must be between 0 and 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minimumExpectedInsertions = minimumExpectedInsertions;
+        this.syncInterval = syncInterval;
+        this.negativeCache = Caffeine.newBuilder()
+                .maximumSize(negativeCacheSize)
+                .expireAfterWrite(negativeCacheTtl)
+                .build();
+    }
+
+    /**
+     * False only when the barcode is certainly not a product: the filter has never seen it,
+     * or the database recently reported it missing.
+     */
+    public boolean mightExist(String barcode) {
+        Sized s = current;
+        if (s == null) {
+            return true;
+        }
+        if (!s.filter.mightContain(barcode)) {
+            definiteMisses.incrementAndGet();
+            increment(absentCounter);
+            return false;
+        }
+        if (negativeCache.getIfPresent(barcode) != null) {
+            increment(negativeHitCounter);
+            return false;
+        }
+        increment(possibleCounter);
+        return true;
+    }
+
+    /**
+     * Records that the database has no product for a barcode the filter let through.
+     */
+    public void recordMissing(String barcode) {
+        if (current != null) {
+            falsePositives.incrementAndGet();
+        }
+        negativeCache.put(barcode, Boolean.TRUE);
+    }
+
+    public synchronized void put(String barcode) {
+        Sized s = current;
+        if (s == null) {
+            // Not built yet; the build reads committed rows, including this one
+            return;
+        }
+        if (s.filter.insertions() >= s.expectedInsertions) {
+            refresh();
+            return;
+        }
+        s.filter.put(barcode);
+    }
+
+    /**
+     * Rebuilds the filter from the product table, sized for twice the current row count.
+     */
+    public synchronized void refresh() {
+        Timestamp started = databaseTime();
+        Long count = jdbcTemplate.queryForObject("select count(*) from product", Long.class);
+        long expected = Math.max(minimumExpectedInsertions, (count == null ? 0 : count) * 2);
+        BloomFilter filter = new BloomFilter(expected, falsePositiveRate);
+        jdbcTemplate.query("select barcode from product", (RowCallbackHandler) rs -> filter.put(rs.getString(1)));
+        current = new Sized(filter, expected);
+        syncedUpTo = started;
+    }
+
+    /**
+     * Adds products inserted or changed since the last build or sync, whoever wrote them.
+     * Rebuilds instead when they would overfill the filter.
+     */
+    public synchronized void sync() {
+        Sized s = current;
+        if (s == null) {
+            return;
+        }
+        Timestamp now = databaseTime();
+        Timestamp since = new Timestamp(syncedUpTo.getTime() - COMMIT_OVERLAP_MILLIS);
+        Long changed = jdbcTemplate.queryForObject("select count(*) from product where updated_at > ?",
+                Long.class, since);
+        if (changed == null || changed == 0) {
+            syncedUpTo = now;
+            return;
+        }
+        if (s.filter.insertions() + changed >= s.expectedInsertions) {
+            refresh();
+            return;
+        }
+        jdbcTemplate.query("select barcode from product where updated_at > ?", (RowCallbackHandler) rs -> {
+            String barcode = rs.getString(1);
+            negativeCache.invalidate(barcode);
+            // The overlap re-reads rows; skipping known ones keeps the insertion count honest
+            if (!s.filter.mightContain(barcode)) {
+                s.filter.put(barcode);
+            }
+        }, since);
+        syncedUpTo = now;
+    }
+
+    /**
+     * Builds the filter and starts the background sync, see CatalogIndexWarmup.
+     */
+    public void start() {
+        refresh();
+        if (syncInterval.isZero()) {
+            return;
+        }
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "barcode-filter-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                logger.warn("Barcode filter sync failed, retrying in {}", syncInterval, e);
+            }
+        }, syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.PRODUCT && event.getKey() != null) {
+            negativeCache.invalidate(event.getKey());
+            put(event.getKey());
+        }
+    }
+
+    public long memoryBytes() {
+        Sized s = current;
+        return s == null ? 0 : s.filter.sizeInBytes();
+    }
+
+    /**
+     * Share of non-catalog barcodes the filter let through, as observed in production traffic.
+     */
+    public double observedFalsePositiveRate() {
+        long fp = falsePositives.get();
+        long total = fp + definiteMisses.get();
+        return total == 0 ? 0.0 : (double) fp / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        absentCounter = checks(registry, "absent");
+        possibleCounter = checks(registry, "possible");
+        negativeHitCounter = checks(registry, "negative_cached");
+        Gauge.builder("barcode.filter.memory", this, BarcodeFilter::memoryBytes)
+                .description("Size of the barcode Bloom filter bit array")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("barcode.filter.entries", this, f -> f.current == null ? 0 : f.current.filter.insertions())
+                .description("Barcodes added to the Bloom filter")
+                .register(registry);
+        Gauge.builder("barcode.filter.false.positive.rate", this, BarcodeFilter::observedFalsePositiveRate)
+                .description("Observed share of unknown barcodes the filter did not reject")
+                .tag("kind", "observed")
+                .register(registry);
+        Gauge.builder("barcode.filter.false.positive.rate", this,
+                        f -> f.current == null ? 0.0 : f.current.filter.expectedFalsePositiveRate())
+                .description("False-positive probability predicted from the filter's fill")
+                .tag("kind", "expected")
+                .register(registry);
+        Gauge.builder("barcode.filter.negative.cache.size", negativeCache, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    private Timestamp databaseTime() {
+        return jdbcTemplate.queryForObject("select current_timestamp(6)", Timestamp.class);
+    }
+
+    private static Counter checks(MeterRegistry registry, String result) {
+        return Counter.builder("barcode.filter.checks")
+                .description("Barcode lookups answered by the filter")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private record Sized(BloomFilter filter, long expectedInsertions) {
+    }
+}
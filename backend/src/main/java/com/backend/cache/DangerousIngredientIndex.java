@@ -0,0 +1,91 @@
+package com.backend.cache;
+
+import com.backend.dto.DangerousIngredientDto;
+import com.backend.event.CatalogChangedEvent;
+import com.backend.model.DangerousIngredients;
+import com.backend.repository.DangerousIngredientsRepository;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory copy of the dangerous_ingredients table keyed by normalized name.
+ * The whole snapshot is rebuilt and swapped in one write whenever the table changes,
+ * so readers never see a half-built index and never take a lock.
+ */
+@Component
+public class DangerousIngredientIndex {
+
+    private final DangerousIngredientsRepository dangerousIngredientsRepository;
+
+    private volatile Snapshot snapshot;
+
+    public DangerousIngredientIndex(DangerousIngredientsRepository dangerousIngredientsRepository) {
+        this.dangerousIngredientsRepository = dangerousIngredientsRepository;
+    }
+
+    /**
+     * Returns the danger entry for an ingredient name, or null if it is not dangerous.
+     */
+    public DangerousIngredientDto find(String ingredientName) {
+        if (ingredientName == null) {
+            return null;
+        }
+        return current().byName.get(normalize(ingredientName));
+    }
+
+    public List<DangerousIngredients> all() {
+        return current().entities;
+    }
+
+    public int size() {
+        return current().entities.size();
+    }
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Runs before the label analyzer rebuilds its automaton from this index
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.DANGEROUS_INGREDIENT) {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        List<DangerousIngredients> entities = List.copyOf(dangerousIngredientsRepository.findAll());
+        Map<String, DangerousIngredientDto> byName = new HashMap<>(entities.size() * 2);
+        for (DangerousIngredients di : entities) {
+            if (di.getNameOfGradient() != null) {
+                byName.put(normalize(di.getNameOfGradient()),
+                        new DangerousIngredientDto(di.getNameOfGradient(), di.getDangerLevel()));
+            }
+        }
+        snapshot = new Snapshot(entities, Map.copyOf(byName));
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private record Snapshot(List<DangerousIngredients> entities, Map<String, DangerousIngredientDto> byName) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.cache;
+
+import com.backend.dto.ProductDetailDto;
+import com.backend.event.CatalogChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of fully built {@link ProductDetailDto}s keyed by barcode.
+ * Caffeine's W-TinyLFU admission keeps the frequently scanned barcodes resident.
+ */
+@Component
+public class ProductDetailCache implements MeterBinder {
+
+    private final Cache<String, ProductDetailDto> cache;
+
+    public ProductDetailCache(@Value("${product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${product-cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached detail for the barcode, building it with the loader on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    public ProductDetailDto get(String barcode, Function<String, ProductDetailDto> loader) {
+        return cache.get(barcode, loader);
+    }
+
+    public ProductDetailDto getIfPresent(String barcode) {
+        return cache.getIfPresent(barcode);
+    }
+
+    /**
+     * Returns the cached details for the barcodes, loading all misses with one loader call.
+     * Barcodes the loader does not return are left out of the result and are not cached.
+     */
+    public Map<String, ProductDetailDto> getAll(Iterable<String> barcodes,
+            Function<Set<? extends String>, Map<String, ProductDetailDto>> loader) {
+        return cache.getAll(barcodes, loader);
+    }
+
+    public void invalidate(String barcode) {
+        cache.invalidate(barcode);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "productDetails");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // An ingredient or danger level change can affect any number of products
+        if (event.getType() == CatalogChangedEvent.Type.PRODUCT) {
+            invalidate(event.getKey());
+        } else {
+            invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.backend.cache;
+
+import com.backend.event.CatalogChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Allergen mask of each user's selected allergies, keyed by user id.
+ * Adding or removing one allergy updates the cached mask in place once the edit has committed;
+ * replacing the whole set evicts it.
+ */
+@Component
+public class UserAllergenMaskCache implements MeterBinder {
+
+    private final Cache<Long, Long> cache;
+
+    public UserAllergenMaskCache(@Value("${user-allergen-cache.maximum-size:50000}") long maximumSize,
+            @Value("${user-allergen-cache.ttl:30m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public long get(Long userId, Function<Long, Long> loader) {
+        return cache.get(userId, loader);
+    }
+
+    public void addAllergy(Long userId, long allergyBit) {
+        cache.asMap().computeIfPresent(userId, (id, mask) -> mask | allergyBit);
+    }
+
+    public void removeAllergy(Long userId, long allergyBit) {
+        cache.asMap().computeIfPresent(userId, (id, mask) -> mask & ~allergyBit);
+    }
+
+    public void put(Long userId, long mask) {
+        cache.put(userId, mask);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userAllergenMasks");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Bit positions are reassigned when the allergy table changes
+        if (event.getType() == CatalogChangedEvent.Type.ALLERGY) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.backend.catalog;
+
+/**
+ * A product as it appears in a catalog snapshot: its ingredients are dictionary ids.
+ */
+class CatalogProduct {
+
+    private final String barcode;
+    private final String productName;
+    private int[] ingredientIds = new int[0];
+
+    CatalogProduct(String barcode, String productName) {
+        this.barcode = barcode;
+        this.productName = productName;
+    }
+
+    String getBarcode() {
+        return barcode;
+    }
+
+    String getProductName() {
+        return productName;
+    }
+
+    int[] getIngredientIds() {
+        return ingredientIds;
+    }
+
+    void setIngredientIds(int[] ingredientIds) {
+        this.ingredientIds = ingredientIds;
+    }
+}
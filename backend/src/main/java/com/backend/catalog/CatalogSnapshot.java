@@ -0,0 +1,43 @@
+package com.backend.catalog;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * An encoded catalog snapshot. A delta ({@code baseVersion > 0}) only carries what changed
+ * after the base version and is applied on top of the client's copy. A full snapshot lives in
+ * a temporary file and is streamed from there.
+ */
+public class CatalogSnapshot {
+
+    private final long version;
+    private final long baseVersion;
+    private final Resource body;
+    private final long contentLength;
+
+    CatalogSnapshot(long version, long baseVersion, Resource body, long contentLength) {
+        this.version = version;
+        this.baseVersion = baseVersion;
+        this.body = body;
+        this.contentLength = contentLength;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public boolean isDelta() {
+        return baseVersion > 0;
+    }
+
+    public Resource getBody() {
+        return body;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+}
@@ -0,0 +1,345 @@
+package com.backend.catalog;
+
+import com.backend.dto.DangerousIngredientDto;
+import com.backend.exception.InvalidRequestException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Builds the binary catalog snapshots offline clients sync from. The version of a snapshot is
+ * the newest catalog updated_at or deletion time (epoch millis) seen when it was built. All of
+ * these timestamps come from the database clock, as does the age check on a client's version.
+ * The full snapshot is written to a temporary file and reused until the catalog version moves;
+ * deltas are built per request from the updated_at indexes and the catalog_tombstone log.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int PAGE_SIZE = 5000;
+    private static final int IN_LIST_SIZE = 1000;
+
+    private static final RowMapper<CatalogProduct> PRODUCT_MAPPER =
+            (rs, rowNum) -> new CatalogProduct(rs.getString(1), rs.getString(2));
+    private static final RowMapper<IngredientRow> INGREDIENT_MAPPER =
+            (rs, rowNum) -> new IngredientRow(dictionaryId(rs.getLong(1)), rs.getString(2));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final Duration deltaOverlap;
+    private final Duration maxDeltaAge;
+    private final Duration fullRefreshInterval;
+
+    private volatile CatalogSnapshot fullSnapshot;
+    private volatile long fullSnapshotCheckedAt;
+    private Path fullSnapshotFile;
+
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate,
+            @Value("${catalog-snapshot.delta-overlap:5s}") Duration deltaOverlap,
+            @Value("${catalog-snapshot.max-delta-age:30d}") Duration maxDeltaAge,
+            @Value("${catalog-snapshot.full-refresh-interval:1m}") Duration fullRefreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.deltaOverlap = deltaOverlap;
+        this.maxDeltaAge = maxDeltaAge;
+        this.fullRefreshInterval = fullRefreshInterval;
+    }
+
+    /**
+     * Returns a delta against the client's version when it is recent enough, otherwise the
+     * full snapshot. A client without a snapshot passes null.
+     */
+    public CatalogSnapshot snapshot(Long clientVersion) {
+        if (clientVersion != null && clientVersion < 0) {
+            throw new InvalidRequestException("since must not be negative");
+        }
+        // Tombstones older than maxDeltaAge are purged, so an older client cannot be given a delta
+        if (clientVersion == null || clientVersion == 0
+                || clientVersion < databaseTime() - maxDeltaAge.toMillis()) {
+            return fullSnapshot();
+        }
+        return delta(clientVersion);
+    }
+
+    /**
+     * The cached full snapshot. Its version is re-checked at most once per refresh interval, so
+     * changes made by other instances or bulk loaders are picked up too; a snapshot that is a
+     * little behind is still correct, the client's next delta covers the difference.
+     */
+    public CatalogSnapshot fullSnapshot() {
+        CatalogSnapshot s = fullSnapshot;
+        if (s != null && System.nanoTime() - fullSnapshotCheckedAt < fullRefreshInterval.toNanos()) {
+            return s;
+        }
+        synchronized (this) {
+            s = fullSnapshot;
+            if (s != null && System.nanoTime() - fullSnapshotCheckedAt < fullRefreshInterval.toNanos()) {
+                return s;
+            }
+            // Read the version first: rows committed while building only make the next delta overlap
+            long version = currentVersion();
+            if (s == null || s.getVersion() != version) {
+                Path previous = fullSnapshotFile;
+                fullSnapshotFile = buildFull(version);
+                s = new CatalogSnapshot(version, 0, new FileSystemResource(fullSnapshotFile),
+                        fullSnapshotFile.toFile().length());
+                fullSnapshot = s;
+                // A download already streaming the previous file keeps its open handle
+                deleteQuietly(previous);
+            }
+            fullSnapshotCheckedAt = System.nanoTime();
+            return s;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        deleteQuietly(fullSnapshotFile);
+    }
+
+    private Path buildFull(long version) {
+        jdbcTemplate.update("delete from catalog_tombstone where deleted_at < ?",
+                new Timestamp(databaseTime() - maxDeltaAge.toMillis()));
+
+        Path file;
+        try {
+            file = Files.createTempFile("catalog-snapshot-", ".bin.gz");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+                CatalogSnapshotWriter writer = new CatalogSnapshotWriter(out, 0, version)) {
+            writer.writeDangerous(dangerousIngredients());
+            writer.writeRemoved(List.of(), new int[0]);
+
+            long afterId = 0;
+            while (true) {
+                List<IngredientRow> page = jdbcTemplate.query("select ingredient_id, name from ingredient "
+                                + "where ingredient_id > ? order by ingredient_id limit ?",
+                        INGREDIENT_MAPPER, afterId, PAGE_SIZE);
+                for (IngredientRow ingredient : page) {
+                    writer.writeIngredient(ingredient.id(), ingredient.name());
+                }
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+            writer.endIngredients();
+
+            // Only the barcodes are held while sorting, numeric ones packed into a long[];
+            // names and links are then read back in file order, IN_LIST_SIZE at a time
+            BarcodeSet barcodes = new BarcodeSet();
+            String after = "";
+            while (true) {
+                List<String> page = jdbcTemplate.queryForList(
+                        "select barcode from product where barcode > ? order by barcode limit ?",
+                        String.class, after, PAGE_SIZE);
+                page.forEach(barcodes::add);
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+                after = page.get(page.size() - 1);
+            }
+            writeProducts(writer, barcodes);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+        return file;
+    }
+
+    private CatalogSnapshot delta(long clientVersion) {
+        long version = currentVersion();
+        // updated_at is stamped before commit, so rows committed just after the client's
+        // version may carry an older timestamp; re-sending a few seconds is harmless
+        Timestamp since = new Timestamp(clientVersion - deltaOverlap.toMillis());
+
+        SortedSet<String> removedBarcodes = new TreeSet<>();
+        SortedSet<Integer> removedIngredients = new TreeSet<>();
+        jdbcTemplate.query("select kind, item_key from catalog_tombstone where deleted_at > ?",
+                (RowCallbackHandler) rs -> {
+                    if ("ingredient".equals(rs.getString(1))) {
+                        removedIngredients.add(dictionaryId(Long.parseLong(rs.getString(2))));
+                    } else {
+                        removedBarcodes.add(rs.getString(2));
+                    }
+                }, since);
+
+        List<IngredientRow> ingredients = jdbcTemplate.query("select ingredient_id, name from ingredient "
+                + "where updated_at > ? order by ingredient_id", INGREDIENT_MAPPER, since);
+        BarcodeSet barcodes = new BarcodeSet();
+        jdbcTemplate.query("select barcode from product where updated_at > ?",
+                (RowCallbackHandler) rs -> barcodes.add(rs.getString(1)), since);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(bytes, clientVersion, version)) {
+            writer.writeDangerous(dangerousIngredients());
+            writer.writeRemoved(new ArrayList<>(removedBarcodes),
+                    removedIngredients.stream().mapToInt(Integer::intValue).toArray());
+            for (IngredientRow ingredient : ingredients) {
+                writer.writeIngredient(ingredient.id(), ingredient.name());
+            }
+            writer.endIngredients();
+            writeProducts(writer, barcodes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] data = bytes.toByteArray();
+        return new CatalogSnapshot(version, clientVersion, new ByteArrayResource(data), data.length);
+    }
+
+    private void writeProducts(CatalogSnapshotWriter writer, BarcodeSet barcodes) throws IOException {
+        long[] numeric = barcodes.sortedNumeric();
+        for (int from = 0; from < numeric.length; from += IN_LIST_SIZE) {
+            List<String> batch = new ArrayList<>(IN_LIST_SIZE);
+            for (int i = from; i < Math.min(from + IN_LIST_SIZE, numeric.length); i++) {
+                batch.add(CatalogSnapshotWriter.barcodeOf(numeric[i]));
+            }
+            for (CatalogProduct product : loadProducts(batch)) {
+                writer.writeNumericProduct(product);
+            }
+        }
+        writer.endNumericProducts();
+
+        List<String> other = barcodes.sortedOther();
+        for (int from = 0; from < other.size(); from += IN_LIST_SIZE) {
+            List<String> batch = other.subList(from, Math.min(from + IN_LIST_SIZE, other.size()));
+            for (CatalogProduct product : loadProducts(batch)) {
+                writer.writeOtherProduct(product);
+            }
+        }
+        writer.endOtherProducts();
+    }
+
+    /**
+     * Loads the given products with their links, in the given order. Products deleted since
+     * their barcode was read are skipped; the next delta carries their tombstone.
+     */
+    private List<CatalogProduct> loadProducts(List<String> barcodes) {
+        Map<String, CatalogProduct> byBarcode = new HashMap<>();
+        Map<String, List<Integer>> links = new HashMap<>();
+        Map<String, List<String>> params = Map.of("barcodes", barcodes);
+        namedJdbcTemplate.query("select barcode, product_name from product where barcode in (:barcodes)", params,
+                (RowCallbackHandler) rs -> byBarcode.put(rs.getString(1), PRODUCT_MAPPER.mapRow(rs, 0)));
+        namedJdbcTemplate.query("select product_barcode, ingredient_id from product_ingredients "
+                        + "where product_barcode in (:barcodes)", params,
+                (RowCallbackHandler) rs -> links.computeIfAbsent(rs.getString(1), b -> new ArrayList<>())
+                        .add(dictionaryId(rs.getLong(2))));
+
+        List<CatalogProduct> products = new ArrayList<>(barcodes.size());
+        for (String barcode : barcodes) {
+            CatalogProduct product = byBarcode.get(barcode);
+            if (product != null) {
+                List<Integer> ids = links.get(barcode);
+                if (ids != null) {
+                    product.setIngredientIds(ids.stream().mapToInt(Integer::intValue).toArray());
+                }
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private long currentVersion() {
+        long version = 1;
+        for (String query : List.of("select max(updated_at) from product",
+                "select max(updated_at) from ingredient",
+                "select max(updated_at) from dangerous_ingredients",
+                "select max(deleted_at) from catalog_tombstone")) {
+            Timestamp latest = jdbcTemplate.queryForObject(query, Timestamp.class);
+            if (latest != null) {
+                version = Math.max(version, latest.getTime());
+            }
+        }
+        return version;
+    }
+
+    private long databaseTime() {
+        return jdbcTemplate.queryForObject("select current_timestamp(6)", Timestamp.class).getTime();
+    }
+
+    private List<DangerousIngredientDto> dangerousIngredients() {
+        return jdbcTemplate.query("select name_of_gradient, danger_level from dangerous_ingredients "
+                        + "order by name_of_gradient",
+                (rs, rowNum) -> new DangerousIngredientDto(rs.getString(1), rs.getInt(2)));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete catalog snapshot file {}", file, e);
+        }
+    }
+
+    private static int dictionaryId(long ingredientId) {
+        return Math.toIntExact(ingredientId);
+    }
+
+    private record IngredientRow(int id, String name) {
+    }
+
+    /**
+     * Barcodes collected for a snapshot, kept compact enough to sort the whole catalog.
+     */
+    private static final class BarcodeSet {
+
+        private long[] numeric = new long[1024];
+        private int numericCount;
+        private final List<String> other = new ArrayList<>();
+
+        void add(String barcode) {
+            if (CatalogSnapshotWriter.barcodeKey(barcode) < 0) {
+                other.add(barcode);
+                return;
+            }
+            if (numericCount == numeric.length) {
+                numeric = Arrays.copyOf(numeric, numericCount * 2);
+            }
+            numeric[numericCount++] = CatalogSnapshotWriter.sortKey(barcode);
+        }
+
+        long[] sortedNumeric() {
+            long[] sorted = Arrays.copyOf(numeric, numericCount);
+            Arrays.parallelSort(sorted);
+            return sorted;
+        }
+
+        List<String> sortedOther() {
+            Collections.sort(other);
+            return other;
+        }
+    }
+}
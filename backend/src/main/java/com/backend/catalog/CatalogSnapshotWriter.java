@@ -0,0 +1,177 @@
+package com.backend.catalog;
+
+import com.backend.dto.DangerousIngredientDto;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a catalog snapshot. The whole payload is gzip compressed; inside it:
+ * <pre>
+ * int     magic "SCNC"
+ * byte    format version (2)
+ * byte    0 = full snapshot, 1 = delta
+ * long    base version (0 for a full snapshot)
+ * long    version
+ * varint  dangerous ingredient count, then per entry: utf name, byte danger level
+ * varint  removed barcode count, then per entry: utf barcode
+ * varint  removed ingredient count, then varint id gaps in ascending order
+ * per ingredient in id order: varint id gap + 1, utf name; a 0 ends the section
+ * per product with a numeric barcode in (key, digits) order:
+ *         varlong key gap + 1, byte digits, utf name, ingredient ids; a 0 ends the section
+ * per other product: byte 1, utf barcode, utf name, ingredient ids; a 0 ends the section
+ * </pre>
+ * Ingredient ids are written as a varint count followed by varint gaps in ascending order.
+ * Numeric barcodes (up to 17 digits) are stored as their value plus the digit count so
+ * leading zeros survive. The ingredient and product sections are terminated rather than
+ * counted so a full snapshot can be written while it is read from the database.
+ * Dangerous ingredients are always complete; a delta removes the listed rows first, then its
+ * ingredient and product sections replace the client's rows.
+ */
+final class CatalogSnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x53434E43;
+    static final int FORMAT_VERSION = 2;
+
+    // Keeps key * 18 + digits within a long, see sortKey
+    private static final int MAX_NUMERIC_DIGITS = 17;
+
+    private final DataOutputStream out;
+    private int previousIngredientId;
+    private long previousKey;
+
+    CatalogSnapshotWriter(OutputStream target, long baseVersion, long version) throws IOException {
+        this.out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(target, 64 * 1024), 8192));
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(baseVersion > 0 ? 1 : 0);
+        out.writeLong(baseVersion);
+        out.writeLong(version);
+    }
+
+    void writeDangerous(List<DangerousIngredientDto> dangerous) throws IOException {
+        writeVarLong(dangerous.size());
+        for (DangerousIngredientDto entry : dangerous) {
+            out.writeUTF(entry.getName());
+            out.writeByte(entry.getDangerLevel());
+        }
+    }
+
+    void writeRemoved(List<String> barcodes, int[] ingredientIds) throws IOException {
+        writeVarLong(barcodes.size());
+        for (String barcode : barcodes) {
+            out.writeUTF(barcode);
+        }
+        writeIngredientIds(ingredientIds);
+    }
+
+    void writeIngredient(int id, String name) throws IOException {
+        if (id < previousIngredientId) {
+            throw new IllegalStateException("Ingredients must be written in ascending id order");
+        }
+        writeVarLong(id - previousIngredientId + 1L);
+        out.writeUTF(name == null ? "" : name);
+        previousIngredientId = id;
+    }
+
+    void endIngredients() throws IOException {
+        out.writeByte(0);
+    }
+
+    /**
+     * Writes a product whose barcode has a {@link #barcodeKey}; these must arrive in
+     * {@link #sortKey} order.
+     */
+    void writeNumericProduct(CatalogProduct product) throws IOException {
+        String barcode = product.getBarcode();
+        long key = barcodeKey(barcode);
+        if (key < previousKey) {
+            throw new IllegalStateException("Numeric barcodes must be written in key order");
+        }
+        writeVarLong(key - previousKey + 1);
+        out.writeByte(barcode.length());
+        out.writeUTF(product.getProductName() == null ? "" : product.getProductName());
+        writeIngredientIds(product.getIngredientIds());
+        previousKey = key;
+    }
+
+    void endNumericProducts() throws IOException {
+        out.writeByte(0);
+    }
+
+    void writeOtherProduct(CatalogProduct product) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(product.getBarcode());
+        out.writeUTF(product.getProductName() == null ? "" : product.getProductName());
+        writeIngredientIds(product.getIngredientIds());
+    }
+
+    void endOtherProducts() throws IOException {
+        out.writeByte(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * The numeric value of an all-digit barcode of at most 17 digits, or -1.
+     */
+    static long barcodeKey(String barcode) {
+        int length = barcode.length();
+        if (length == 0 || length > MAX_NUMERIC_DIGITS) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            char c = barcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    /**
+     * Packs a numeric barcode into one long that sorts in the (key, digits) order of the file,
+     * so a full snapshot can sort millions of barcodes as a primitive array.
+     */
+    static long sortKey(String barcode) {
+        return barcodeKey(barcode) * (MAX_NUMERIC_DIGITS + 1) + barcode.length();
+    }
+
+    static String barcodeOf(long sortKey) {
+        int digits = (int) (sortKey % (MAX_NUMERIC_DIGITS + 1));
+        String value = Long.toString(sortKey / (MAX_NUMERIC_DIGITS + 1));
+        return "0".repeat(digits - value.length()) + value;
+    }
+
+    private void writeIngredientIds(int[] ids) throws IOException {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        writeVarLong(sorted.length);
+        int previous = 0;
+        for (int id : sorted) {
+            writeVarLong(id - previous);
+            previous = id;
+        }
+    }
+
+    // Unsigned LEB128
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
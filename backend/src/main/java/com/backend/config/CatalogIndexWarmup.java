@@ -0,0 +1,39 @@
+package com.backend.config;
+
+import com.backend.cache.BarcodeFilter;
+import com.backend.search.AutocompleteIndex;
+import com.backend.search.ProductNameIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the in-memory catalog indexes once the server is up, so the first requests do not pay
+ * for the full table scans. The import and dataset profiles run without a web server and never
+ * query these indexes, so they skip the scans; the name and autocomplete indexes still build
+ * lazily should anything use them.
+ */
+@Component
+@ConditionalOnWebApplication
+public class CatalogIndexWarmup {
+
+    private final BarcodeFilter barcodeFilter;
+    private final ProductNameIndex productNameIndex;
+    private final AutocompleteIndex autocompleteIndex;
+
+    public CatalogIndexWarmup(BarcodeFilter barcodeFilter, ProductNameIndex productNameIndex,
+            AutocompleteIndex autocompleteIndex) {
+        this.barcodeFilter = barcodeFilter;
+        this.productNameIndex = productNameIndex;
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        barcodeFilter.start();
+        productNameIndex.refresh();
+        autocompleteIndex.refresh(AutocompleteIndex.Kind.ALLERGY);
+        autocompleteIndex.refresh(AutocompleteIndex.Kind.INGREDIENT);
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 
@@ -347,7 +348,7 @@ public class DataSeeder {
                         userAllergies.add(randomAllergy);
                     }
                 }
-                user.setAllergies(userAllergies);
+                user.setAllergies(new HashSet<>(userAllergies));
                 userRepository.save(user);
             }
 
@@ -364,7 +365,7 @@ public class DataSeeder {
                     allAllergies.stream().filter(a -> a.getName().equals("Gluten")).findFirst().orElse(null),
                     allAllergies.stream().filter(a -> a.getName().equals("Milk (Dairy)")).findFirst().orElse(null),
                     allAllergies.stream().filter(a -> a.getName().equals("Tree Nuts")).findFirst().orElse(null));
-            testUser.setAllergies(testAllergies);
+            testUser.setAllergies(new HashSet<>(testAllergies));
             userRepository.save(testUser);
 
             logger.info("Seeded {} users ({} random + 1 admin + 1 test user)", userCount + 2, userCount);
@@ -1,9 +1,10 @@
 package com.backend.controller;
 
 import com.backend.dto.AllergyDto;
+import com.backend.security.AuthenticatedUser;
 import com.backend.service.AllergyService;
-import com.backend.service.JwtService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,28 +13,32 @@ import java.util.List;
 public class AllergyController {
 
     private final AllergyService allergyService;
-    private final JwtService jwtService;
 
-    public AllergyController(AllergyService allergyService, JwtService jwtService) {
+    public AllergyController(AllergyService allergyService) {
         this.allergyService = allergyService;
-        this.jwtService = jwtService;
     }
 
     @PostMapping("/allergies")
     public ResponseEntity<?> saveAAllergyForUser(@RequestBody AllergyDto allergyDto,
-            @RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(allergyService.saveAllergyForAUser(allergyDto, jwtService.extractMail(token)));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(allergyService.saveAllergyForAUser(allergyDto, user.getUserId()));
+    }
+
+    @PutMapping("/allergies")
+    public ResponseEntity<List<AllergyDto>> replaceAllergiesForUser(@RequestBody List<AllergyDto> allergyDtos,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(allergyService.replaceAllergiesForUser(allergyDtos, user.getUserId()));
     }
 
     @DeleteMapping("/allergies")
     public ResponseEntity<?> deleteAAllergyForUser(@RequestBody AllergyDto allergyDto,
-            @RequestHeader("Authorization") String token) {
-        allergyService.deleteAAllergyForUser(allergyDto, jwtService.extractMail(token));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        allergyService.deleteAAllergyForUser(allergyDto, user.getUserId());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/allergies")
-    public ResponseEntity<List<AllergyDto>> getAllergies(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(allergyService.getAllAllergy(jwtService.extractMail(token)));
+    public ResponseEntity<List<AllergyDto>> getAllergies(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(allergyService.getAllAllergy(user.getUserId()));
     }
 }
@@ -0,0 +1,31 @@
+package com.backend.controller;
+
+import com.backend.search.AutocompleteIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public AutocompleteController(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @GetMapping("/allergies")
+    public ResponseEntity<List<String>> allergies(@RequestParam("q") String prefix,
+                                                  @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(autocompleteIndex.complete(AutocompleteIndex.Kind.ALLERGY, prefix, limit));
+    }
+
+    @GetMapping("/ingredients")
+    public ResponseEntity<List<String>> ingredients(@RequestParam("q") String prefix,
+                                                    @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(autocompleteIndex.complete(AutocompleteIndex.Kind.INGREDIENT, prefix, limit));
+    }
+}
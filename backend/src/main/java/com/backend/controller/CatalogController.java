@@ -0,0 +1,34 @@
+package com.backend.controller;
+
+import com.backend.catalog.CatalogSnapshot;
+import com.backend.catalog.CatalogSnapshotService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/catalog")
+public class CatalogController {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public CatalogController(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    /**
+     * Gzip compressed binary catalog for offline scanning, see CatalogSnapshotWriter for the layout.
+     * Clients pass the version of the snapshot they hold to receive only the changes since then.
+     */
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Resource> snapshot(@RequestParam(value = "since", required = false) Long since) {
+        CatalogSnapshot snapshot = catalogSnapshotService.snapshot(since);
+        return ResponseEntity.ok()
+                .header("X-Catalog-Version", Long.toString(snapshot.getVersion()))
+                .header("X-Catalog-Snapshot", snapshot.isDelta() ? "delta" : "full")
+                .contentLength(snapshot.getContentLength())
+                .body(snapshot.getBody());
+    }
+}
@@ -1,9 +1,12 @@
 package com.backend.controller;
 
 import com.backend.dto.HistoryDto;
+import com.backend.dto.HistoryPageDto;
+import com.backend.security.AuthenticatedUser;
 import com.backend.service.HistoryService;
-import com.backend.service.JwtService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -13,36 +16,50 @@ import java.util.List;
 public class HistoryController {
 
     private final HistoryService historyService;
-    private final JwtService jwtService;
 
-    public HistoryController(HistoryService historyService, JwtService jwtService) {
+    public HistoryController(HistoryService historyService) {
         this.historyService = historyService;
-        this.jwtService = jwtService;
     }
 
     @PostMapping
     public ResponseEntity<HistoryDto> saveHistory(
             @RequestBody HistoryDto historyDto,
-            @RequestHeader("Authorization") String token) {
-        String email = jwtService.extractMail(token);
-        HistoryDto saved = historyService.saveHistory(historyDto, email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        HistoryDto saved = historyService.saveHistory(historyDto, user.getUserId());
+        // No id yet means the scan was queued for a write-behind batch
+        if (saved.getId() == null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(saved);
+        }
         return ResponseEntity.ok(saved);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<HistoryDto>> syncHistory(
+            @RequestBody List<HistoryDto> scans,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(historyService.syncHistory(scans, user.getUserId()));
+    }
+
     @GetMapping
     public ResponseEntity<List<HistoryDto>> getHistory(
-            @RequestHeader("Authorization") String token) {
-        String email = jwtService.extractMail(token);
-        List<HistoryDto> history = historyService.getUserHistory(email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        List<HistoryDto> history = historyService.getUserHistory(user.getUserId());
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<HistoryPageDto> getHistoryPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(historyService.getUserHistoryPage(user.getUserId(), cursor, limit));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteHistory(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String token) {
-        String email = jwtService.extractMail(token);
-        historyService.deleteHistory(id, email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        historyService.deleteHistory(id, user.getUserId());
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,26 @@
+package com.backend.controller;
+
+import com.backend.analyzer.IngredientLabelAnalyzer;
+import com.backend.dto.LabelMatchDto;
+import com.backend.dto.request.LabelAnalysisRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/labels")
+public class LabelController {
+
+    private final IngredientLabelAnalyzer ingredientLabelAnalyzer;
+
+    public LabelController(IngredientLabelAnalyzer ingredientLabelAnalyzer) {
+        this.ingredientLabelAnalyzer = ingredientLabelAnalyzer;
+    }
+
+    @PostMapping("/analyze")
+    public ResponseEntity<List<LabelMatchDto>> analyze(@RequestBody LabelAnalysisRequest request) {
+        return ResponseEntity.ok(ingredientLabelAnalyzer.analyze(request.getText()));
+    }
+}
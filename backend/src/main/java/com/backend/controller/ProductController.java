@@ -1,10 +1,18 @@
 package com.backend.controller;
 
 import com.backend.dto.ProductDetailDto;
-import com.backend.service.JwtService;
+import com.backend.dto.ProductDto;
+import com.backend.dto.request.BarcodeBatchRequest;
+import com.backend.search.ProductNameIndex;
+import com.backend.security.AuthenticatedUser;
 import com.backend.service.ProductService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
 
 @CrossOrigin
 @RestController
@@ -12,17 +20,36 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
-    private final JwtService jwtService;
+    private final ProductNameIndex productNameIndex;
 
-    public ProductController(ProductService productService, JwtService jwtService) {
+    public ProductController(ProductService productService, ProductNameIndex productNameIndex) {
         this.productService = productService;
-        this.jwtService = jwtService;
+        this.productNameIndex = productNameIndex;
     }
 
     @GetMapping("/search")
     public ResponseEntity<ProductDetailDto> search(@RequestParam("barcode") String barcode,
-                                                   @RequestHeader("Authorization") String token) {
-        ProductDetailDto dto = productService.getProductDetailsForUser(barcode, jwtService.extractMail(token));
+                                                   @AuthenticationPrincipal AuthenticatedUser user,
+                                                   WebRequest request) {
+        // Sets the ETag header and answers a matching If-None-Match with 304, before any body is built
+        if (request.checkNotModified(productService.getProductDetailTag(barcode, user.getUserId()))) {
+            return null;
+        }
+        ProductDetailDto dto = productService.getProductDetailsForUser(barcode, user.getUserId());
         return ResponseEntity.ok(dto);
     }
+
+    @PostMapping("/search/batch")
+    public ResponseEntity<Map<String, ProductDetailDto>> searchBatch(@RequestBody BarcodeBatchRequest request,
+                                                                     @AuthenticationPrincipal AuthenticatedUser user) {
+        Map<String, ProductDetailDto> details = productService.getProductDetailsForUser(request.getBarcodes(), user.getUserId());
+        return ResponseEntity.ok(details);
+    }
+
+    @GetMapping("/by-name")
+    public ResponseEntity<List<ProductDto>> searchByName(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(productNameIndex.search(query, limit));
+    }
 }
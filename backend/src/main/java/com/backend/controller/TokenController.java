@@ -1,6 +1,8 @@
 package com.backend.controller;
 
 import com.backend.dto.request.TokenRequest;
+import com.backend.model.User;
+import com.backend.security.CustomUserDetails;
 import com.backend.service.JwtService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,8 +37,9 @@ public class TokenController {
                     new UsernamePasswordAuthenticationToken(tokenRequest.getEmail(), tokenRequest.getPassword()));
             if (authentication.isAuthenticated()) {
                 logger.info("Login successful for: {}", tokenRequest.getEmail());
-                return jwtService.generateToken(tokenRequest.getEmail(),
-                        authentication.getAuthorities().toArray()[0].toString());
+                User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
+                return jwtService.generateToken(user.getId(), tokenRequest.getEmail(),
+                        authentication.getAuthorities().toArray()[0].toString(), user.getTokenVersion());
             }
         } catch (Exception e) {
             logger.error("Authentication failed for {}: {}", tokenRequest.getEmail(), e.getMessage());
@@ -0,0 +1,305 @@
+package com.backend.dataset;
+
+import com.backend.ingest.HistoryBatchWriter;
+import com.backend.ingest.PendingScan;
+import com.backend.ingest.PooledIdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills the database with a production-sized synthetic dataset for load and performance tests.
+ * Runs only under the {@code dataset} profile and exits when done, e.g.
+ * {@code java -jar backend.jar --spring.profiles.active=dataset --dataset.products=2000000}.
+ * <p>
+ * Every row is generated from its own random stream derived from {@code dataset.seed}, the table and the
+ * row number, so the same settings produce the same data regardless of thread count or batch size.
+ * Rows are written with JDBC batches from a fixed pool of worker threads.
+ */
+@Component
+@Profile("dataset")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final long INGREDIENT = 1;
+    private static final long PRODUCT = 2;
+    private static final long PRODUCT_INGREDIENTS = 3;
+    private static final long USER = 4;
+    private static final long HISTORY = 5;
+
+    private static final List<String> ALLERGIES = List.of("Peanuts", "Tree Nuts", "Milk (Dairy)", "Eggs", "Soy",
+            "Gluten", "Fish", "Shellfish", "Sesame", "Mustard", "Celery", "Sulfites", "Lupin", "Molluscs");
+
+    // Mixes allergen keywords into ingredient names so allergen masks are not all zero
+    private static final List<String> INGREDIENT_WORDS = List.of("Sugar", "Salt", "Water", "Wheat Flour", "Milk",
+            "Whey", "Butter", "Egg", "Soy Lecithin", "Peanut", "Almond", "Hazelnut", "Sesame", "Mustard", "Barley Malt",
+            "Palm Oil", "Sunflower Oil", "Corn Starch", "Rice", "Cocoa", "Tuna", "Shrimp", "Vanilla", "Yeast",
+            "Citric Acid", "Sulfite", "Glucose Syrup", "Gelatin", "Spices", "Tomato");
+
+    private static final List<String> PRODUCT_KINDS = List.of("Chocolate Cookie", "Potato Chips", "Cola Drink",
+            "White Bread", "Chocolate Bar", "Tomato Soup", "Instant Noodles", "Fruit Yogurt", "Canned Tuna",
+            "Peanut Butter", "Soy Sauce", "Processed Cheese", "Chocolate Wafer", "Hazelnut Spread", "Breakfast Cereal",
+            "Ice Cream", "Crackers", "Fruit Juice");
+
+    private static final List<String> BRANDS = List.of("Ulker", "Eti", "Torku", "Pinar", "Sutas", "Tat", "Tamek",
+            "Dimes", "Ferrero", "Nestle", "Danone", "Kraft", "Heinz", "Barilla", "Knorr", "Lays");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HistoryBatchWriter historyBatchWriter;
+    private final PooledIdAllocator pooledIdAllocator;
+    private final PasswordEncoder passwordEncoder;
+
+    private final long seed;
+    private final int threads;
+    private final int batchSize;
+    private final long ingredientCount;
+    private final long productCount;
+    private final long userCount;
+    private final int maxIngredientsPerProduct;
+    private final int maxAllergiesPerUser;
+    private final int averageHistoryPerUser;
+    private final int historyDays;
+    private final LocalDateTime historyEnd;
+    private final String userPassword;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, HistoryBatchWriter historyBatchWriter,
+            PooledIdAllocator pooledIdAllocator, PasswordEncoder passwordEncoder,
+            @Value("${dataset.seed:42}") long seed,
+            @Value("${dataset.threads:4}") int threads,
+            @Value("${dataset.batch-size:1000}") int batchSize,
+            @Value("${dataset.ingredients:20000}") long ingredientCount,
+            @Value("${dataset.products:1000000}") long productCount,
+            @Value("${dataset.users:100000}") long userCount,
+            @Value("${dataset.max-ingredients-per-product:15}") int maxIngredientsPerProduct,
+            @Value("${dataset.max-allergies-per-user:4}") int maxAllergiesPerUser,
+            @Value("${dataset.average-history-per-user:50}") int averageHistoryPerUser,
+            @Value("${dataset.history-days:365}") int historyDays,
+            @Value("${dataset.history-end:2025-01-01T00:00}") String historyEnd,
+            @Value("${dataset.user-password:password}") String userPassword) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.historyBatchWriter = historyBatchWriter;
+        this.pooledIdAllocator = pooledIdAllocator;
+        this.passwordEncoder = passwordEncoder;
+        this.seed = seed;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.ingredientCount = ingredientCount;
+        this.productCount = productCount;
+        this.userCount = userCount;
+        this.maxIngredientsPerProduct = maxIngredientsPerProduct;
+        this.maxAllergiesPerUser = maxAllergiesPerUser;
+        this.averageHistoryPerUser = averageHistoryPerUser;
+        this.historyDays = historyDays;
+        this.historyEnd = LocalDateTime.parse(historyEnd);
+        this.userPassword = userPassword;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (ingredientCount < 1 || productCount < 1 || threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("dataset ingredients, products, threads and batch-size must be positive");
+        }
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from product where barcode = ?",
+                Integer.class, barcode(0));
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("A synthetic dataset is already present, use an empty database");
+        }
+
+        long start = System.currentTimeMillis();
+        logger.info("Generating dataset: {} ingredients, {} products, {} users, ~{} history rows (seed {}, {} threads)",
+                ingredientCount, productCount, userCount, userCount * averageHistoryPerUser, seed, threads);
+
+        if (count("allergy") == 0) {
+            long firstAllergyId = pooledIdAllocator.allocate("allergy_seq", ALLERGIES.size());
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < ALLERGIES.size(); i++) {
+                rows.add(new Object[] { firstAllergyId + i, ALLERGIES.get(i) });
+            }
+            jdbcTemplate.batchUpdate("insert into allergy (allergy_id, name) values (?, ?)", rows);
+        }
+        List<Long> allergyIds = jdbcTemplate.queryForList("select allergy_id from allergy order by allergy_id",
+                Long.class);
+        // Ingredient names are unique, so dangerous ingredients that already exist as ingredients are skipped
+        List<String> dangerousNames = jdbcTemplate.queryForList("select d.name_of_gradient from dangerous_ingredients d "
+                + "where not exists (select 1 from ingredient i where i.name = d.name_of_gradient) "
+                + "order by d.name_of_gradient", String.class);
+
+        // Ids are reserved from the entities' sequence tables so the application can keep inserting afterwards
+        long ingredientBase = pooledIdAllocator.allocate("ingredient_seq", ingredientCount) - 1;
+        long userBase = pooledIdAllocator.allocate("users_seq", userCount) - 1;
+        String passwordHash = passwordEncoder.encode(userPassword);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            generate(executor, "ingredient", ingredientCount,
+                    (from, to) -> insertIngredients(from, to, ingredientBase, dangerousNames));
+            generate(executor, "product", productCount,
+                    (from, to) -> insertProducts(from, to, ingredientBase));
+            generate(executor, "users", userCount,
+                    (from, to) -> insertUsers(from, to, userBase, passwordHash, allergyIds));
+            generate(executor, "scan_history", userCount,
+                    (from, to) -> insertHistory(from, to, userBase));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Dataset generated in {} s", (System.currentTimeMillis() - start) / 1000);
+    }
+
+    private int insertIngredients(long from, long to, long ingredientBase, List<String> dangerousNames) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            // The first ingredients are the dangerous ones so products can contain them
+            String name = i < dangerousNames.size()
+                    ? dangerousNames.get((int) i)
+                    : pick(random(INGREDIENT, i), INGREDIENT_WORDS) + " " + i;
+            rows.add(new Object[] { ingredientBase + i + 1, name });
+        }
+        jdbcTemplate.batchUpdate("insert into ingredient (ingredient_id, name) values (?, ?)", rows);
+        return rows.size();
+    }
+
+    private int insertProducts(long from, long to, long ingredientBase) {
+        List<Object[]> products = new ArrayList<>((int) (to - from));
+        List<Object[]> links = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            String barcode = barcode(i);
+            products.add(new Object[] { barcode, productName(i) });
+
+            SplittableRandom random = random(PRODUCT_INGREDIENTS, i);
+            int size = 1 + random.nextInt(maxIngredientsPerProduct);
+            Set<Long> ingredientIds = new LinkedHashSet<>();
+            for (int j = 0; j < size; j++) {
+                ingredientIds.add(ingredientBase + 1 + skewed(random, ingredientCount));
+            }
+            for (Long ingredientId : ingredientIds) {
+                links.add(new Object[] { barcode, ingredientId });
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into product (barcode, product_name) values (?, ?)", products);
+        jdbcTemplate.batchUpdate("insert into product_ingredients (product_barcode, ingredient_id) values (?, ?)",
+                links);
+        return products.size();
+    }
+
+    private int insertUsers(long from, long to, long userBase, String passwordHash, List<Long> allergyIds) {
+        List<Object[]> users = new ArrayList<>((int) (to - from));
+        List<Object[]> links = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            long userId = userBase + i + 1;
+            SplittableRandom random = random(USER, i);
+            users.add(new Object[] { userId, "user" + i, passwordHash, "user" + i + "@dataset.scanme.com",
+                    "User", String.valueOf(i), "ROLE_USER", 0 });
+
+            int size = allergyIds.isEmpty() ? 0 : random.nextInt(maxAllergiesPerUser + 1);
+            Set<Long> userAllergies = new LinkedHashSet<>();
+            for (int j = 0; j < size; j++) {
+                userAllergies.add(pick(random, allergyIds));
+            }
+            for (Long allergyId : userAllergies) {
+                links.add(new Object[] { userId, allergyId });
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, username, password, email, name, surname, role, token_version)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into user_allergies (user_id, allergy_id) values (?, ?)", links);
+        return users.size();
+    }
+
+    private int insertHistory(long from, long to, long userBase) {
+        int written = 0;
+        List<PendingScan> scans = new ArrayList<>(batchSize);
+        for (long i = from; i < to; i++) {
+            SplittableRandom random = random(HISTORY, i);
+            int size = random.nextInt(2 * averageHistoryPerUser + 1);
+            for (int j = 0; j < size; j++) {
+                long product = random.nextLong(productCount);
+                LocalDateTime scanDate = historyEnd.minusMinutes(random.nextLong(historyDays * 24L * 60L));
+                scans.add(new PendingScan(userBase + i + 1, barcode(product), productName(product),
+                        random.nextBoolean(), scanDate, null));
+            }
+            if (scans.size() >= batchSize) {
+                written += historyBatchWriter.insert(scans);
+                scans.clear();
+            }
+        }
+        if (!scans.isEmpty()) {
+            written += historyBatchWriter.insert(scans);
+        }
+        return written;
+    }
+
+    private void generate(ExecutorService executor, String table, long rows, ChunkWriter writer) {
+        long start = System.currentTimeMillis();
+        List<Future<Integer>> chunks = new ArrayList<>();
+        for (long from = 0; from < rows; from += batchSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(from + batchSize, rows);
+            chunks.add(executor.submit(() -> writer.write(chunkFrom, chunkTo)));
+        }
+
+        long written = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                written += chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating " + table, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to generate " + table, e.getCause());
+        }
+        logger.info("Generated {} {} rows in {} ms", written, table, System.currentTimeMillis() - start);
+    }
+
+    private String productName(long product) {
+        SplittableRandom random = random(PRODUCT, product);
+        return pick(random, BRANDS) + " " + pick(random, PRODUCT_KINDS);
+    }
+
+    // Barcodes starting with 2 are reserved for in-store use, so they never collide with real products
+    private static String barcode(long product) {
+        return String.format("2%012d", product);
+    }
+
+    private SplittableRandom random(long table, long row) {
+        return new SplittableRandom(seed ^ (table << 56) ^ row);
+    }
+
+    // Low indexes are picked far more often, like popular ingredients in real catalogs
+    private static long skewed(SplittableRandom random, long bound) {
+        double r = random.nextDouble();
+        return Math.min(bound - 1, (long) (bound * r * r * r));
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        int write(long from, long to);
+    }
+}
@@ -8,6 +8,7 @@ public class HistoryDto {
     private String productName;
     private Boolean isSafe;
     private LocalDateTime scanDate;
+    private String idempotencyKey;
 
     public HistoryDto() {
     }
@@ -20,6 +21,12 @@ public class HistoryDto {
         this.scanDate = scanDate;
     }
 
+    public HistoryDto(Long id, String barcode, String productName, Boolean isSafe, LocalDateTime scanDate,
+            String idempotencyKey) {
+        this(id, barcode, productName, isSafe, scanDate);
+        this.idempotencyKey = idempotencyKey;
+    }
+
     public Long getId() {
         return id;
     }
@@ -59,4 +66,12 @@ public class HistoryDto {
     public void setScanDate(LocalDateTime scanDate) {
         this.scanDate = scanDate;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
@@ -0,0 +1,33 @@
+package com.backend.dto;
+
+import java.util.List;
+
+public class HistoryPageDto {
+    private List<HistoryDto> items;
+    // Opaque; pass back as ?cursor= to get the next page, null on the last page
+    private String nextCursor;
+
+    public HistoryPageDto() {
+    }
+
+    public HistoryPageDto(List<HistoryDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<HistoryDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<HistoryDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.backend.dto;
+
+public class LabelMatchDto {
+    private String name;
+    private String matchedText;
+    private int start;
+    private int end;
+    private int dangerLevel;
+
+    public LabelMatchDto() {
+    }
+
+    public LabelMatchDto(String name, String matchedText, int start, int end, int dangerLevel) {
+        this.name = name;
+        this.matchedText = matchedText;
+        this.start = start;
+        this.end = end;
+        this.dangerLevel = dangerLevel;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getMatchedText() {
+        return matchedText;
+    }
+
+    public void setMatchedText(String matchedText) {
+        this.matchedText = matchedText;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public void setStart(int start) {
+        this.start = start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public void setEnd(int end) {
+        this.end = end;
+    }
+
+    public int getDangerLevel() {
+        return dangerLevel;
+    }
+
+    public void setDangerLevel(int dangerLevel) {
+        this.dangerLevel = dangerLevel;
+    }
+}
@@ -1,13 +1,20 @@
 package com.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 public class ProductDetailDto {
     private String barcode;
     private String productName;
     private List<String> ingredients;
-    // userSelections removed - allergen detection is handled by frontend
     private List<DangerousIngredientDto> dangerousIngredients;
+    private List<String> detectedAllergens;
+    private Boolean isSafe;
+    @JsonIgnore
+    private long allergenMask;
+    @JsonIgnore
+    private long contentHash;
 
     public ProductDetailDto() {
     }
@@ -22,6 +29,15 @@ public class ProductDetailDto {
         this.dangerousIngredients = dangerousIngredients;
     }
 
+    public ProductDetailDto(String barcode,
+            String productName,
+            List<String> ingredients,
+            List<DangerousIngredientDto> dangerousIngredients,
+            long allergenMask) {
+        this(barcode, productName, ingredients, dangerousIngredients);
+        this.allergenMask = allergenMask;
+    }
+
     public String getBarcode() {
         return barcode;
     }
@@ -53,4 +69,36 @@ public class ProductDetailDto {
     public void setDangerousIngredients(List<DangerousIngredientDto> dangerousIngredients) {
         this.dangerousIngredients = dangerousIngredients;
     }
+
+    public List<String> getDetectedAllergens() {
+        return detectedAllergens;
+    }
+
+    public void setDetectedAllergens(List<String> detectedAllergens) {
+        this.detectedAllergens = detectedAllergens;
+    }
+
+    public Boolean getIsSafe() {
+        return isSafe;
+    }
+
+    public void setIsSafe(Boolean isSafe) {
+        this.isSafe = isSafe;
+    }
+
+    public long getAllergenMask() {
+        return allergenMask;
+    }
+
+    public void setAllergenMask(long allergenMask) {
+        this.allergenMask = allergenMask;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
 }
@@ -0,0 +1,43 @@
+package com.backend.dto;
+
+/**
+ * One product/ingredient pair from the product detail projection. The dangerous ingredient
+ * columns are null when the ingredient is not dangerous, the ingredient columns when the
+ * product has no ingredients.
+ */
+public class ProductDetailRow {
+    private final String barcode;
+    private final String productName;
+    private final String ingredientName;
+    private final String dangerousName;
+    private final Integer dangerLevel;
+
+    public ProductDetailRow(String barcode, String productName, String ingredientName, String dangerousName,
+            Integer dangerLevel) {
+        this.barcode = barcode;
+        this.productName = productName;
+        this.ingredientName = ingredientName;
+        this.dangerousName = dangerousName;
+        this.dangerLevel = dangerLevel;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getIngredientName() {
+        return ingredientName;
+    }
+
+    public String getDangerousName() {
+        return dangerousName;
+    }
+
+    public Integer getDangerLevel() {
+        return dangerLevel;
+    }
+}
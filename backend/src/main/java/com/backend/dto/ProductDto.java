@@ -0,0 +1,30 @@
+package com.backend.dto;
+
+public class ProductDto {
+    private String barcode;
+    private String productName;
+
+    public ProductDto() {
+    }
+
+    public ProductDto(String barcode, String productName) {
+        this.barcode = barcode;
+        this.productName = productName;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+}
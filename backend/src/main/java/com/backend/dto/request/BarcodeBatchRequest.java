@@ -0,0 +1,22 @@
+package com.backend.dto.request;
+
+import java.util.List;
+
+public class BarcodeBatchRequest {
+    private List<String> barcodes;
+
+    public BarcodeBatchRequest() {
+    }
+
+    public BarcodeBatchRequest(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+
+    public List<String> getBarcodes() {
+        return barcodes;
+    }
+
+    public void setBarcodes(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+}
@@ -0,0 +1,20 @@
+package com.backend.dto.request;
+
+public class LabelAnalysisRequest {
+    private String text;
+
+    public LabelAnalysisRequest() {
+    }
+
+    public LabelAnalysisRequest(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
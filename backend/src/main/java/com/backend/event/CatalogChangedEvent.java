@@ -0,0 +1,31 @@
+package com.backend.event;
+
+/**
+ * Published whenever a catalog entity (product, ingredient, dangerous ingredient, allergy)
+ * is inserted, updated or removed, so in-memory views of the catalog can be refreshed.
+ */
+public class CatalogChangedEvent {
+
+    public enum Type {
+        PRODUCT,
+        INGREDIENT,
+        DANGEROUS_INGREDIENT,
+        ALLERGY
+    }
+
+    private final Type type;
+    private final String key;
+
+    public CatalogChangedEvent(Type type, String key) {
+        this.type = type;
+        this.key = key;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
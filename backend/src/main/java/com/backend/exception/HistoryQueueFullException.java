@@ -0,0 +1,11 @@
+package com.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class HistoryQueueFullException extends RuntimeException {
+    public HistoryQueueFullException(String message) {
+        super(message);
+    }
+}
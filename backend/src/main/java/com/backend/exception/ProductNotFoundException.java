@@ -0,0 +1,12 @@
+package com.backend.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ProductNotFoundException extends EntityNotFoundException {
+    public ProductNotFoundException(String message) {
+        super(message);
+    }
+}
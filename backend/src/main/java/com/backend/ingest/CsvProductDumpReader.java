@@ -0,0 +1,111 @@
+package com.backend.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delimited dumps with a header row. With quoting enabled, fields may be wrapped in double quotes
+ * (RFC 4180, including embedded delimiters, line breaks and doubled quotes); tab-separated dumps
+ * such as Open Food Facts' usually need it off, as their quotes are literal.
+ */
+public class CsvProductDumpReader implements ProductDumpReader {
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final boolean quoting;
+    private final int barcodeColumn;
+    private final int nameColumn;
+    private final int ingredientsColumn;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    public CsvProductDumpReader(Path file, char delimiter, boolean quoting, String barcodeField, String nameField,
+            String ingredientsField) throws IOException {
+        this.reader = ProductDumpReader.open(file);
+        this.delimiter = delimiter;
+        this.quoting = quoting;
+        if (!readRecord()) {
+            throw new IllegalArgumentException(file + " is empty");
+        }
+        List<String> header = List.copyOf(fields);
+        this.barcodeColumn = column(header, barcodeField, file);
+        this.nameColumn = column(header, nameField, file);
+        this.ingredientsColumn = column(header, ingredientsField, file);
+    }
+
+    @Override
+    public ImportedProduct next() throws IOException {
+        if (!readRecord()) {
+            return null;
+        }
+        String barcode = fields.size() > barcodeColumn ? fields.get(barcodeColumn).trim() : "";
+        return new ImportedProduct(barcode.isEmpty() ? null : barcode,
+                fields.size() > nameColumn ? ProductDumpReader.clean(fields.get(nameColumn)) : null,
+                fields.size() > ingredientsColumn
+                        ? ProductDumpReader.splitIngredients(fields.get(ingredientsColumn))
+                        : List.of());
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next record into {@link #fields}; false at the end of input.
+     */
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        boolean inQuotes = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else if (c == '"' && quoting && field.length() == 0) {
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private static int column(List<String> header, String name, Path file) {
+        int index = header.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException(file + " has no column " + name + ", columns are " + header);
+        }
+        return index;
+    }
+}
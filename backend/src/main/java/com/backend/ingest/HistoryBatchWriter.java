@@ -0,0 +1,90 @@
+package com.backend.ingest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes scan_history rows with multi-row INSERT statements, skipping the entity lifecycle.
+ * Ids come from history_seq, the sequence table History uses. A scan whose idempotency key is
+ * already stored for its user is skipped instead of failing the whole statement.
+ */
+@Component
+public class HistoryBatchWriter {
+
+    private static final String INSERT_PREFIX =
+            "insert into scan_history (id, barcode, product_name, is_safe, scan_date, user_id, client_key) values ";
+    // No-op on uk_scan_history_user_client_key, so a replayed scan keeps its original row
+    private static final String ON_DUPLICATE = " on duplicate key update id = id";
+    private static final int COLUMNS = 7;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PooledIdAllocator pooledIdAllocator;
+    private final int rowsPerStatement;
+
+    public HistoryBatchWriter(JdbcTemplate jdbcTemplate, PooledIdAllocator pooledIdAllocator,
+            @Value("${history.batch-writer.rows-per-statement:500}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pooledIdAllocator = pooledIdAllocator;
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    /**
+     * Returns the number of scans written or already stored. Repeated idempotency keys within
+     * the list are written once. The statements share one transaction, so a failed call can be
+     * retried without duplicating the rows of its earlier statements.
+     */
+    @Transactional
+    public int insert(List<PendingScan> scans) {
+        scans = withoutRepeatedKeys(scans);
+        if (scans.isEmpty()) {
+            return 0;
+        }
+        long firstId = pooledIdAllocator.allocate("history_seq", scans.size());
+        int written = 0;
+        for (int from = 0; from < scans.size(); from += rowsPerStatement) {
+            written += insertChunk(scans.subList(from, Math.min(from + rowsPerStatement, scans.size())),
+                    firstId + from);
+        }
+        return written;
+    }
+
+    private int insertChunk(List<PendingScan> chunk, long firstId) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * 16).append(INSERT_PREFIX);
+        Object[] args = new Object[chunk.size() * COLUMNS];
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingScan scan = chunk.get(i);
+            sql.append(i == 0 ? "(?,?,?,?,?,?,?)" : ",(?,?,?,?,?,?,?)");
+            int offset = i * COLUMNS;
+            args[offset] = firstId + i;
+            args[offset + 1] = scan.barcode();
+            args[offset + 2] = scan.productName();
+            args[offset + 3] = scan.isSafe();
+            args[offset + 4] = Timestamp.valueOf(scan.scanDate());
+            args[offset + 5] = scan.userId();
+            args[offset + 6] = scan.clientKey();
+        }
+        sql.append(ON_DUPLICATE);
+        jdbcTemplate.update(sql.toString(), args);
+        // Affected rows count a skipped duplicate as 0 or 1 depending on the driver's found-rows setting
+        return chunk.size();
+    }
+
+    private static List<PendingScan> withoutRepeatedKeys(List<PendingScan> scans) {
+        Set<String> keys = new HashSet<>();
+        List<PendingScan> unique = new ArrayList<>(scans.size());
+        for (PendingScan scan : scans) {
+            if (scan.clientKey() == null || keys.add(scan.userId() + "|" + scan.clientKey())) {
+                unique.add(scan);
+            }
+        }
+        return unique;
+    }
+}
@@ -0,0 +1,273 @@
+package com.backend.ingest;
+
+import com.backend.exception.HistoryQueueFullException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asynchronous ingestion for scan history. Accepted scans wait in a bounded queue and a single
+ * writer thread inserts them as multi-row INSERTs, flushing when a batch is full or the flush
+ * interval has passed. Producers are blocked for at most the offer timeout when the queue is full.
+ * A batch that fails is retried with a growing backoff, so while the database is unavailable the
+ * queue fills up and producers are turned away instead of scans being dropped; a row the database
+ * rejects is logged and skipped without holding back the rest of its batch.
+ * On shutdown the queue stops accepting scans and is drained before the data source closes; rows
+ * still failing when the shutdown timeout runs out are logged.
+ */
+@Component
+@ConditionalOnProperty(name = "history.write-behind.enabled", havingValue = "true")
+public class HistoryWriteBehindBuffer implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryWriteBehindBuffer.class);
+
+    private final HistoryBatchWriter historyBatchWriter;
+    private final BlockingQueue<PendingScan> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    // Held shared by producers from the accepting check through the offer, so none can slip a
+    // scan into the queue after shutdown has started draining it
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private volatile long stopDeadlineNanos;
+    private Thread writer;
+
+    public HistoryWriteBehindBuffer(HistoryBatchWriter historyBatchWriter,
+            @Value("${history.write-behind.capacity:10000}") int capacity,
+            @Value("${history.write-behind.batch-size:500}") int batchSize,
+            @Value("${history.write-behind.flush-interval:200ms}") Duration flushInterval,
+            @Value("${history.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+            @Value("${history.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+            @Value("${history.write-behind.retry-backoff:500ms}") Duration retryBackoff,
+            @Value("${history.write-behind.max-retry-backoff:30s}") Duration maxRetryBackoff) {
+        this.historyBatchWriter = historyBatchWriter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+        this.shutdownTimeoutMillis = shutdownTimeout.toMillis();
+        this.retryBackoffMillis = Math.max(1, retryBackoff.toMillis());
+        this.maxRetryBackoffMillis = Math.max(retryBackoffMillis, maxRetryBackoff.toMillis());
+    }
+
+    public void enqueue(PendingScan scan) {
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new HistoryQueueFullException("History ingestion is shutting down");
+            }
+            if (!queue.offer(scan, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedRows.incrementAndGet();
+                throw new HistoryQueueFullException("History queue is full, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HistoryQueueFullException("Interrupted while queueing history");
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        accepting = true;
+        writer = new Thread(this::writeLoop, "history-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        // Waits for producers inside enqueue, at most the offer timeout
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        stopDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            List<PendingScan> unwritten = new ArrayList<>(queue);
+            logger.error("{} history rows were not written before shutdown: {}", unwritten.size(), unwritten);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<PendingScan> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingScan first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = running ? deadline - System.nanoTime() : 0L;
+                    PendingScan next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingScan> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        write(batch);
+        long elapsed = System.nanoTime() - start;
+        flushCount.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        lastFlushNanos.set(elapsed);
+    }
+
+    /**
+     * Writes the rows, retrying until they are stored or the shutdown timeout has passed. The
+     * batch writer runs in one transaction, so a failed attempt leaves no rows behind.
+     */
+    private void write(List<PendingScan> rows) throws InterruptedException {
+        long backoffMillis = retryBackoffMillis;
+        while (true) {
+            try {
+                flushedRows.addAndGet(historyBatchWriter.insert(rows));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (rows.size() > 1) {
+                    // Retrying would fail the same way; find the rejected rows one by one
+                    for (PendingScan row : rows) {
+                        write(List.of(row));
+                    }
+                } else {
+                    failedRows.incrementAndGet();
+                    logger.error("Dropped history row rejected by the database: {} ({})", rows.get(0), e.getMessage());
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (!running && System.nanoTime() - stopDeadlineNanos > 0) {
+                    failedRows.addAndGet(rows.size());
+                    logger.error("Gave up writing {} history rows at shutdown: {}", rows.size(), rows, e);
+                    return;
+                }
+                logger.warn("Failed to write {} history rows, retrying in {} ms: {}", rows.size(), backoffMillis,
+                        e.getMessage());
+                long sleepMillis = running ? backoffMillis : Math.min(backoffMillis,
+                        Math.max(0, TimeUnit.NANOSECONDS.toMillis(stopDeadlineNanos - System.nanoTime())) + 1);
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException interrupted) {
+                    failedRows.addAndGet(rows.size());
+                    logger.error("Interrupted while retrying {} history rows: {}", rows.size(), rows);
+                    throw interrupted;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoffMillis);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("history.write_behind.queue.depth", this, HistoryWriteBehindBuffer::queueDepth)
+                .register(registry);
+        Gauge.builder("history.write_behind.queue.capacity", this, HistoryWriteBehindBuffer::queueCapacity)
+                .register(registry);
+        FunctionTimer.builder("history.write_behind.flush", this,
+                        HistoryWriteBehindBuffer::flushCount, HistoryWriteBehindBuffer::totalFlushNanos,
+                        TimeUnit.NANOSECONDS)
+                .register(registry);
+        Gauge.builder("history.write_behind.flush.last", this, b -> b.lastFlushNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("history.write_behind.rows", this, HistoryWriteBehindBuffer::flushedRows)
+                .tag("outcome", "written").register(registry);
+        FunctionCounter.builder("history.write_behind.rows", this, HistoryWriteBehindBuffer::failedRows)
+                .tag("outcome", "failed").register(registry);
+        FunctionCounter.builder("history.write_behind.rows", this, HistoryWriteBehindBuffer::rejectedRows)
+                .tag("outcome", "rejected").register(registry);
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public int queueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long flushCount() {
+        return flushCount.get();
+    }
+
+    public long flushedRows() {
+        return flushedRows.get();
+    }
+
+    public long failedRows() {
+        return failedRows.get();
+    }
+
+    public long rejectedRows() {
+        return rejectedRows.get();
+    }
+
+    public long totalFlushNanos() {
+        return totalFlushNanos.get();
+    }
+
+    public long lastFlushNanos() {
+        return lastFlushNanos.get();
+    }
+}
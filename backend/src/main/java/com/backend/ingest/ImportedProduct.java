@@ -0,0 +1,9 @@
+package com.backend.ingest;
+
+import java.util.List;
+
+/**
+ * A product read from an import dump, before its ingredient names are resolved to ids.
+ */
+public record ImportedProduct(String barcode, String productName, List<String> ingredients) {
+}
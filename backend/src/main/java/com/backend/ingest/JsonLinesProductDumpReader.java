@@ -0,0 +1,72 @@
+package com.backend.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One JSON object per line. The ingredients field may be label text or an array of names or of
+ * objects with a {@code text} field, as in Open Food Facts exports.
+ */
+public class JsonLinesProductDumpReader implements ProductDumpReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final String barcodeField;
+    private final String nameField;
+    private final String ingredientsField;
+
+    public JsonLinesProductDumpReader(Path file, ObjectMapper objectMapper, String barcodeField, String nameField,
+            String ingredientsField) throws IOException {
+        this.reader = ProductDumpReader.open(file);
+        this.objectMapper = objectMapper;
+        this.barcodeField = barcodeField;
+        this.nameField = nameField;
+        this.ingredientsField = ingredientsField;
+    }
+
+    @Override
+    public ImportedProduct next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        JsonNode node = objectMapper.readTree(line);
+        JsonNode barcode = node.path(barcodeField);
+        String code = barcode.isValueNode() ? barcode.asText().trim() : "";
+        return new ImportedProduct(code.isEmpty() ? null : code,
+                ProductDumpReader.clean(node.path(nameField).isValueNode() ? node.path(nameField).asText() : null),
+                ingredients(node.path(ingredientsField)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static List<String> ingredients(JsonNode node) {
+        if (node.isTextual()) {
+            return ProductDumpReader.splitIngredients(node.asText());
+        }
+        List<String> names = new ArrayList<>();
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                String name = ProductDumpReader.cleanIngredient(
+                        element.isObject() ? element.path("text").asText(null) : element.asText(null));
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+}
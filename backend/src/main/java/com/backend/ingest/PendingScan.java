@@ -0,0 +1,10 @@
+package com.backend.ingest;
+
+import java.time.LocalDateTime;
+
+/**
+ * A scan_history row waiting to be written by {@link HistoryBatchWriter}.
+ */
+public record PendingScan(Long userId, String barcode, String productName, Boolean isSafe,
+        LocalDateTime scanDate, String clientKey) {
+}
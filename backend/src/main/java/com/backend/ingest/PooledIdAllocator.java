@@ -0,0 +1,41 @@
+package com.backend.ingest;
+
+import com.backend.model.IdAllocation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves ids for rows written through JDBC from the same sequence tables Hibernate allocates from,
+ * so JDBC writers and JPA never hand out the same id.
+ */
+@Component
+public class PooledIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PooledIdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Like Hibernate, allocate outside the caller's transaction so the row lock is held only briefly
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserves at least count consecutive ids and returns the first one.
+     */
+    public long allocate(String sequenceTable, long count) {
+        long blocks = Math.max(1, (count + IdAllocation.BLOCK_SIZE - 1) / IdAllocation.BLOCK_SIZE);
+        Long next = transactionTemplate.execute(status -> {
+            Long current = jdbcTemplate.queryForObject("select next_val from " + sequenceTable + " for update",
+                    Long.class);
+            jdbcTemplate.update("update " + sequenceTable + " set next_val = ?",
+                    current + blocks * IdAllocation.BLOCK_SIZE);
+            return current;
+        });
+        return next - IdAllocation.BLOCK_SIZE + 1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.backend.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads products from a dump one record at a time. Records without a barcode come back with a
+ * null barcode so the caller can count them.
+ */
+public interface ProductDumpReader extends Closeable {
+
+    int MAX_COLUMN_LENGTH = 255;
+
+    Pattern PERCENTAGE = Pattern.compile("\\d+(?:[.,]\\d+)?\\s*%");
+    Pattern WHITESPACE = Pattern.compile("\\s+");
+    Pattern EMPTY_LIST_ITEM = Pattern.compile("\\s*[,;]\\s*(?=[,;)\\]])|(?<=[(\\[])\\s*[,;]\\s*");
+    Pattern EMPTY_PARENTHESES = Pattern.compile("\\(\\s*\\)|\\[\\s*]");
+
+    /**
+     * Returns the next record, or null at the end of the dump.
+     */
+    ImportedProduct next() throws IOException;
+
+    /**
+     * Opens a plain or gzip compressed dump with a large read buffer.
+     */
+    static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 20);
+    }
+
+    /**
+     * Splits a label's ingredient text ("Sugar, palm oil 20%, cocoa (fat-reduced)") on commas
+     * and semicolons outside parentheses, dropping percentages and markup.
+     */
+    static List<String> splitIngredients(String text) {
+        List<String> names = new ArrayList<>();
+        if (text == null) {
+            return names;
+        }
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ',';
+            if (c == '(' || c == '[') {
+                depth++;
+            } else if ((c == ')' || c == ']') && depth > 0) {
+                depth--;
+            } else if ((c == ',' || c == ';') && (depth == 0 || i == text.length())) {
+                String name = cleanIngredient(text.substring(start, Math.min(i, text.length())));
+                if (name != null) {
+                    names.add(name);
+                }
+                start = i + 1;
+            }
+        }
+        return names;
+    }
+
+    static String cleanIngredient(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String name = PERCENTAGE.matcher(raw).replaceAll("").replace("_", "").replace("*", "");
+        // "cocoa (fat-reduced, 10%)" loses its percentage; drop the separators and brackets left behind
+        name = EMPTY_PARENTHESES.matcher(EMPTY_LIST_ITEM.matcher(name).replaceAll("")).replaceAll("");
+        name = WHITESPACE.matcher(name).replaceAll(" ").trim();
+        while (name.endsWith(".") || name.endsWith(":")) {
+            name = name.substring(0, name.length() - 1).trim();
+        }
+        if (name.isEmpty()) {
+            return null;
+        }
+        return name.length() > MAX_COLUMN_LENGTH ? name.substring(0, MAX_COLUMN_LENGTH) : name;
+    }
+
+    static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        return trimmed.length() > MAX_COLUMN_LENGTH ? trimmed.substring(0, MAX_COLUMN_LENGTH) : trimmed;
+    }
+}
@@ -0,0 +1,381 @@
+package com.backend.ingest;
+
+import com.backend.search.TextFolding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads products from large CSV/TSV or JSON Lines dumps (plain or gzip) under the {@code import} profile, e.g.
+ * {@code java -jar backend.jar --spring.profiles.active=import --import.file=/data/products.jsonl.gz}.
+ * <p>
+ * The dump is read as a stream and cut into chunks of {@code import.batch-size} records. Ingredient names
+ * are resolved on the reading thread against an in-memory map of the ingredient table (folded like the
+ * column's collation), and new names are inserted before their chunk is handed off. Worker threads write
+ * each chunk's products and product_ingredients rows with JDBC batches in one transaction, together with
+ * its import_checkpoint row. Running the same job again skips the committed chunks, so an interrupted import
+ * resumes where it stopped. Barcodes already in the catalog, or repeated in the dump, are skipped and counted.
+ */
+@Component
+@Profile("import")
+public class ProductImporter implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImporter.class);
+
+    // A multiple of IdAllocation.BLOCK_SIZE, so every reserved id is used
+    private static final int INGREDIENT_ID_BLOCK = 1000;
+    private static final String INSERT_PRODUCTS = "insert ignore into product (barcode, product_name) values ";
+    private static final int PRODUCT_ROWS_PER_STATEMENT = 500;
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PooledIdAllocator pooledIdAllocator;
+    private final ObjectMapper objectMapper;
+
+    private final String file;
+    private final String format;
+    private final String job;
+    private final int threads;
+    private final int batchSize;
+    private final Duration progressInterval;
+    private final char csvDelimiter;
+    private final boolean csvQuoting;
+    private final String barcodeField;
+    private final String nameField;
+    private final String ingredientsField;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Reading thread only
+    private final Map<String, Long> ingredientIds = new HashMap<>();
+    private long nextIngredientId;
+    private long lastIngredientId = -1;
+    private volatile long read;
+    private long invalid;
+    private long resumed;
+
+    public ProductImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PooledIdAllocator pooledIdAllocator, ObjectMapper objectMapper,
+            @Value("${import.file}") String file,
+            @Value("${import.format:auto}") String format,
+            @Value("${import.job:}") String job,
+            @Value("${import.threads:4}") int threads,
+            @Value("${import.batch-size:2000}") int batchSize,
+            @Value("${import.progress-interval:10s}") Duration progressInterval,
+            @Value("${import.csv.delimiter:,}") char csvDelimiter,
+            @Value("${import.csv.quoting:true}") boolean csvQuoting,
+            @Value("${import.barcode-field:code}") String barcodeField,
+            @Value("${import.name-field:product_name}") String nameField,
+            @Value("${import.ingredients-field:ingredients_text}") String ingredientsField) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pooledIdAllocator = pooledIdAllocator;
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.format = format;
+        this.job = job;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+        this.csvDelimiter = csvDelimiter;
+        this.csvQuoting = csvQuoting;
+        this.barcodeField = barcodeField;
+        this.nameField = nameField;
+        this.ingredientsField = ingredientsField;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path path = Path.of(file);
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("import.file " + file + " is not readable");
+        }
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("import threads and batch-size must be positive");
+        }
+        String jobName = job.isBlank() ? path.getFileName().toString() : job;
+
+        // Chunk numbers only line up with the committed ones when the batch size is unchanged
+        List<Integer> batchSizes = jdbcTemplate.queryForList(
+                "select distinct batch_size from import_checkpoint where job = ?", Integer.class, jobName);
+        if (!batchSizes.isEmpty() && !batchSizes.equals(List.of(batchSize))) {
+            throw new IllegalStateException("Import " + jobName + " was started with batch-size " + batchSizes
+                    + ", resume it with the same batch-size");
+        }
+        Set<Long> committed = new HashSet<>(jdbcTemplate.queryForList(
+                "select chunk from import_checkpoint where job = ?", Long.class, jobName));
+
+        jdbcTemplate.query("select ingredient_id, name from ingredient",
+                (RowCallbackHandler) rs -> ingredientIds.put(TextFolding.fold(rs.getString(2)), rs.getLong(1)));
+
+        long start = System.nanoTime();
+        logger.info("Importing {} as job {} ({} ingredients known, {} chunks already committed, {} threads)",
+                path, jobName, ingredientIds.size(), committed.size(), threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        // Bounds the chunks held in memory while the workers catch up
+        Semaphore inFlight = new Semaphore(threads * 2);
+        AtomicLong lastWritten = new AtomicLong();
+        progress.scheduleAtFixedRate(() -> {
+            long total = written.get();
+            logger.info("Imported {} products ({} rows/s), {} records read", total,
+                    (total - lastWritten.getAndSet(total)) / Math.max(1, progressInterval.toSeconds()), read);
+        }, progressInterval.toMillis(), progressInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        try (ProductDumpReader reader = openReader(path)) {
+            List<ImportedProduct> chunk = new ArrayList<>(batchSize);
+            long chunkIndex = 0;
+            ImportedProduct product;
+            while ((product = reader.next()) != null && failure.get() == null) {
+                read++;
+                if (product.barcode() == null || product.barcode().length() > ProductDumpReader.MAX_COLUMN_LENGTH) {
+                    invalid++;
+                    continue;
+                }
+                chunk.add(product);
+                if (chunk.size() == batchSize) {
+                    submit(executor, inFlight, jobName, chunkIndex++, chunk, committed);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty() && failure.get() == null) {
+                submit(executor, inFlight, jobName, chunkIndex, chunk, committed);
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                // Stop the stuck workers; their chunks roll back and are written again on resume
+                executor.shutdownNow();
+                failure.compareAndSet(null, new TimeoutException("Chunk writers did not finish within an hour"));
+            }
+            progress.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Import " + jobName + " failed, run it again to resume", failure.get());
+        }
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        logger.info("Imported {} products in {} s ({} rows/s): {} records read, {} invalid, {} already in the "
+                        + "catalog, {} in chunks committed by an earlier run",
+                written.get(), seconds, written.get() / seconds, read, invalid, duplicates.get(), resumed);
+    }
+
+    private ProductDumpReader openReader(Path path) throws IOException {
+        String name = path.getFileName().toString().replaceFirst("\\.gz$", "");
+        boolean jsonLines = "auto".equals(format)
+                ? name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")
+                : "jsonl".equals(format);
+        if (jsonLines) {
+            return new JsonLinesProductDumpReader(path, objectMapper, barcodeField, nameField, ingredientsField);
+        }
+        return new CsvProductDumpReader(path, csvDelimiter, csvQuoting, barcodeField, nameField, ingredientsField);
+    }
+
+    private void submit(ExecutorService executor, Semaphore inFlight, String jobName, long chunkIndex,
+            List<ImportedProduct> products, Set<Long> committed) throws InterruptedException {
+        if (committed.contains(chunkIndex)) {
+            resumed += products.size();
+            return;
+        }
+
+        List<Object[]> newIngredients = new ArrayList<>();
+        for (ImportedProduct product : products) {
+            for (String name : product.ingredients()) {
+                String key = TextFolding.fold(name);
+                if (!ingredientIds.containsKey(key)) {
+                    long id = nextIngredientId();
+                    ingredientIds.put(key, id);
+                    newIngredients.add(new Object[] { id, name });
+                }
+            }
+        }
+        // Committed before any worker can reference them from product_ingredients
+        insertIngredients(newIngredients);
+
+        List<List<Long>> productIngredients = new ArrayList<>(products.size());
+        for (ImportedProduct product : products) {
+            Set<Long> ids = new LinkedHashSet<>();
+            for (String name : product.ingredients()) {
+                ids.add(ingredientIds.get(TextFolding.fold(name)));
+            }
+            productIngredients.add(List.copyOf(ids));
+        }
+
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    writeChunk(jobName, chunkIndex, products, productIngredients);
+                }
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+                logger.error("Chunk {} of import {} failed", chunkIndex, jobName, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Inserts new ingredients in one batch. Should the folded key disagree with the column's collation
+     * and the batch hit the unique name index, the rows are retried one by one and the clashing names
+     * are mapped to the existing rows.
+     */
+    private void insertIngredients(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String sql = "insert into ingredient (ingredient_id, name) values (?, ?)";
+        try {
+            jdbcTemplate.batchUpdate(sql, rows);
+        } catch (DuplicateKeyException e) {
+            for (Object[] row : rows) {
+                String name = (String) row[1];
+                try {
+                    jdbcTemplate.update(sql, row);
+                } catch (DuplicateKeyException duplicate) {
+                    Long existing = jdbcTemplate.queryForObject("select ingredient_id from ingredient where name = ?",
+                            Long.class, name);
+                    ingredientIds.put(TextFolding.fold(name), existing);
+                }
+            }
+        }
+    }
+
+    private void writeChunk(String jobName, long chunkIndex, List<ImportedProduct> products,
+            List<List<Long>> productIngredients) {
+        for (int attempt = 1; ; attempt++) {
+            Integer inserted;
+            try {
+                inserted = transactionTemplate.execute(status -> {
+                    Integer claimed = writeChunkOnce(jobName, chunkIndex, products, productIngredients);
+                    if (claimed == null) {
+                        status.setRollbackOnly();
+                    }
+                    return claimed;
+                });
+            } catch (PessimisticLockingFailureException e) {
+                inserted = null;
+            }
+            if (inserted != null) {
+                written.addAndGet(inserted);
+                duplicates.addAndGet(products.size() - inserted);
+                return;
+            }
+            if (attempt == CHUNK_ATTEMPTS) {
+                throw new IllegalStateException("Chunk " + chunkIndex
+                        + " kept racing parallel chunks for its barcodes");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of products inserted, or null when a parallel chunk committed one of the
+     * barcodes after the existence check; the caller rolls back and tries again, and the check
+     * then sees that row.
+     */
+    private Integer writeChunkOnce(String jobName, long chunkIndex, List<ImportedProduct> products,
+            List<List<Long>> productIngredients) {
+        List<String> barcodes = products.stream().map(ImportedProduct::barcode).toList();
+        Set<String> seen = new HashSet<>(namedJdbcTemplate.queryForList(
+                "select barcode from product where barcode in (:barcodes)", Map.of("barcodes", barcodes),
+                String.class));
+
+        List<ImportedProduct> fresh = new ArrayList<>(products.size());
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            ImportedProduct product = products.get(i);
+            if (!seen.add(product.barcode())) {
+                continue;
+            }
+            fresh.add(product);
+            for (Long ingredientId : productIngredients.get(i)) {
+                links.add(new Object[] { product.barcode(), ingredientId });
+            }
+        }
+        // Chunks sharing barcodes then lock them in the same order instead of deadlocking
+        fresh.sort(Comparator.comparing(ImportedProduct::barcode));
+
+        int inserted = 0;
+        for (int from = 0; from < fresh.size(); from += PRODUCT_ROWS_PER_STATEMENT) {
+            int to = Math.min(from + PRODUCT_ROWS_PER_STATEMENT, fresh.size());
+            inserted += insertProducts(fresh.subList(from, to));
+        }
+        if (inserted != fresh.size()) {
+            return null;
+        }
+
+        // The products are new, so the V6 link trigger touching their updated_at is redundant
+        jdbcTemplate.execute("set @catalog_bulk_load = 1");
+        try {
+            jdbcTemplate.batchUpdate("insert into product_ingredients (product_barcode, ingredient_id) values (?, ?)",
+                    links);
+        } finally {
+            jdbcTemplate.execute("set @catalog_bulk_load = null");
+        }
+        jdbcTemplate.update("insert into import_checkpoint (job, chunk, batch_size, products) values (?, ?, ?, ?)",
+                jobName, chunkIndex, batchSize, inserted);
+        return inserted;
+    }
+
+    /**
+     * One multi-row INSERT IGNORE; a barcode committed by a parallel chunk is skipped rather than
+     * failing the statement, and the affected row count tells how many rows were new.
+     */
+    private int insertProducts(List<ImportedProduct> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PRODUCTS.length() + rows.size() * 7).append(INSERT_PRODUCTS);
+        Object[] args = new Object[rows.size() * 2];
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?,?)" : ",(?,?)");
+            args[i * 2] = rows.get(i).barcode();
+            args[i * 2 + 1] = rows.get(i).productName();
+        }
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private long nextIngredientId() {
+        if (nextIngredientId > lastIngredientId) {
+            nextIngredientId = pooledIdAllocator.allocate("ingredient_seq", INGREDIENT_ID_BLOCK);
+            lastIngredientId = nextIngredientId + INGREDIENT_ID_BLOCK - 1;
+        }
+        return nextIngredientId++;
+    }
+}
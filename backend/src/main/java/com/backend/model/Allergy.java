@@ -1,14 +1,20 @@
 package com.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "allergy")
+@EntityListeners(CatalogEntityListener.class)
 public class Allergy extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "allergy_seq")
+    @SequenceGenerator(name = "allergy_seq", sequenceName = "allergy_seq", allocationSize = IdAllocation.BLOCK_SIZE)
     @Column(name = "allergy_id")
     private Long id;
     private String name;
@@ -1,31 +1,22 @@
 package com.backend.model;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
-import org.springframework.data.annotation.LastModifiedDate;
+import jakarta.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
+/**
+ * Catalog entities. The timestamps are stamped by the database (column defaults and
+ * ON UPDATE, see V4) so JPA and JDBC writers share one clock with the snapshot versions.
+ */
+@MappedSuperclass
 public abstract class BaseEntity {
 
-    @Column(name = "created_at", nullable = false, updatable = false)
+    @Column(name = "created_at", insertable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @LastModifiedDate
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", insertable = false, updatable = false)
     private LocalDateTime updatedAt;
 
-    @PrePersist
-    protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
-    }
-
     public BaseEntity() {
     }
 
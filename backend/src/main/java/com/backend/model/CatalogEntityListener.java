@@ -0,0 +1,36 @@
+package com.backend.model;
+
+import com.backend.event.CatalogChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener that turns catalog writes into {@link CatalogChangedEvent}s.
+ * Instantiated by Hibernate through Spring's bean container.
+ */
+public class CatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCatalogChange(Object entity) {
+        if (entity instanceof Product product) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, product.getBarcode()));
+        } else if (entity instanceof Ingredient ingredient) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.INGREDIENT, ingredient.getName()));
+        } else if (entity instanceof DangerousIngredients dangerous) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.DANGEROUS_INGREDIENT,
+                    dangerous.getNameOfGradient()));
+        } else if (entity instanceof Allergy allergy) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.ALLERGY, allergy.getName()));
+        }
+    }
+}
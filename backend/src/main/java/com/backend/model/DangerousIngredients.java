@@ -1,9 +1,16 @@
 package com.backend.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dangerousIngredients")
+@EntityListeners(CatalogEntityListener.class)
 public class DangerousIngredients extends BaseEntity{
 
     @Id
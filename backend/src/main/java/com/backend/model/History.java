@@ -4,16 +4,24 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "scan_history")
+@Table(name = "scan_history",
+        indexes = @Index(name = "idx_scan_history_user_date_id", columnList = "user_id, scanDate desc, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_scan_history_user_client_key",
+                columnNames = { "user_id", "client_key" }))
 public class History {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "history_seq")
+    @SequenceGenerator(name = "history_seq", sequenceName = "history_seq", allocationSize = IdAllocation.BLOCK_SIZE)
     private Long id;
 
     private String barcode;
     private String productName;
     private Boolean isSafe;
+    @Column(nullable = false)
     private LocalDateTime scanDate;
+    // Idempotency key generated by the mobile app, used to skip replayed offline scans
+    @Column(name = "client_key", length = 64)
+    private String clientKey;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -70,6 +78,14 @@ public class History {
         this.scanDate = scanDate;
     }
 
+    public String getClientKey() {
+        return clientKey;
+    }
+
+    public void setClientKey(String clientKey) {
+        this.clientKey = clientKey;
+    }
+
     public User getUser() {
         return user;
     }
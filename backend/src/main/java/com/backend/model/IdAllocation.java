@@ -0,0 +1,14 @@
+package com.backend.model;
+
+/**
+ * Pooled id allocation shared by the entities and the JDBC writers. MySQL has no sequences, so each
+ * sequence is a one-row table. Whoever reads {@code next_val = n} and advances it by BLOCK_SIZE owns
+ * the ids {@code n - BLOCK_SIZE + 1 .. n}, which is how Hibernate's pooled optimizer uses it.
+ */
+public final class IdAllocation {
+
+    public static final int BLOCK_SIZE = 50;
+
+    private IdAllocation() {
+    }
+}
@@ -1,16 +1,22 @@
 package com.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@EntityListeners(CatalogEntityListener.class)
 public class Product extends BaseEntity {
     @Id
     private String barcode;
     private String productName;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product.ingredients")
     @JoinTable(
         name = "product_ingredients",
         joinColumns = @JoinColumn(name = "product_barcode"),
@@ -3,13 +3,14 @@ package com.backend.model;
 
 import jakarta.persistence.*;
 
-import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = IdAllocation.BLOCK_SIZE)
     private Long id;
     private String username;
     private String password;
@@ -18,6 +19,9 @@ public class User {
     private String surname;
     @Enumerated(EnumType.STRING)
     private Role role;
+    // Bumped to revoke every token issued before the change
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
 
     @ManyToMany
     @JoinTable(
@@ -25,7 +29,7 @@ public class User {
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "allergy_id")
     )
-    private List<Allergy> allergies;
+    private Set<Allergy> allergies;
 
     public User() {
     }
@@ -95,11 +99,19 @@ public class User {
         this.role = role;
     }
 
-    public List<Allergy> getAllergies() {
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Set<Allergy> getAllergies() {
         return allergies;
     }
 
-    public void setAllergies(List<Allergy> allergies) {
+    public void setAllergies(Set<Allergy> allergies) {
         this.allergies = allergies;
     }
 }
@@ -1,9 +1,25 @@
 package com.backend.repository;
 
 import com.backend.model.Allergy;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface AllergyRepository extends JpaRepository<Allergy, Long> {
+import java.util.List;
 
+public interface AllergyRepository extends JpaRepository<Allergy, Long>, AllergyRepositoryCustom {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.allergyByName") })
     Allergy findByName(String name);
+
+    @Query("select a from User u join u.allergies a where u.id = :userId")
+    List<Allergy> findAllByUserId(@Param("userId") Long userId);
+
+    @Query(value = "select allergy_id from user_allergies where user_id = :userId", nativeQuery = true)
+    List<Long> findAllergyIdsByUserId(@Param("userId") Long userId);
 }
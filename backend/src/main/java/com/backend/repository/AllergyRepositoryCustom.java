@@ -0,0 +1,10 @@
+package com.backend.repository;
+
+import java.util.Collection;
+
+public interface AllergyRepositoryCustom {
+
+    int addUserAllergies(Long userId, Collection<Long> allergyIds);
+
+    int removeUserAllergies(Long userId, Collection<Long> allergyIds);
+}
@@ -0,0 +1,45 @@
+package com.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Native writes to the user_allergies join table. Hibernate cannot tell which tables a native
+ * update touches and evicts every second-level cache region after it, so each query declares
+ * user_allergies as its only query space.
+ */
+class AllergyRepositoryCustomImpl implements AllergyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Skips allergies the user already has, so adding is idempotent
+    @Override
+    @Transactional
+    public int addUserAllergies(Long userId, Collection<Long> allergyIds) {
+        return userAllergiesUpdate("insert into user_allergies (user_id, allergy_id) "
+                + "select :userId, a.allergy_id from allergy a where a.allergy_id in :allergyIds "
+                + "and not exists (select 1 from user_allergies ua where ua.user_id = :userId and ua.allergy_id = a.allergy_id)",
+                userId, allergyIds);
+    }
+
+    @Override
+    @Transactional
+    public int removeUserAllergies(Long userId, Collection<Long> allergyIds) {
+        return userAllergiesUpdate("delete from user_allergies where user_id = :userId and allergy_id in :allergyIds",
+                userId, allergyIds);
+    }
+
+    private int userAllergiesUpdate(String sql, Long userId, Collection<Long> allergyIds) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("user_allergies")
+                .setParameter("userId", userId)
+                .setParameter("allergyIds", allergyIds)
+                .executeUpdate();
+    }
+}
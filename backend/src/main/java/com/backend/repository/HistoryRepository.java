@@ -1,13 +1,40 @@
 package com.backend.repository;
 
+import com.backend.dto.HistoryDto;
 import com.backend.model.History;
 import com.backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface HistoryRepository extends JpaRepository<History, Long> {
     List<History> findByUserOrderByScanDateDesc(User user);
+
+    @Query("select new com.backend.dto.HistoryDto(h.id, h.barcode, h.productName, h.isSafe, h.scanDate) "
+            + "from History h where h.user.id = :userId order by h.scanDate desc, h.id desc")
+    List<HistoryDto> findDtosByUserId(@Param("userId") Long userId);
+
+    // Keyset pages, served by idx_scan_history_user_date_id
+    @Query("select new com.backend.dto.HistoryDto(h.id, h.barcode, h.productName, h.isSafe, h.scanDate) "
+            + "from History h where h.user.id = :userId order by h.scanDate desc, h.id desc")
+    List<HistoryDto> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("select new com.backend.dto.HistoryDto(h.id, h.barcode, h.productName, h.isSafe, h.scanDate) "
+            + "from History h where h.user.id = :userId "
+            + "and (h.scanDate < :scanDate or (h.scanDate = :scanDate and h.id < :id)) "
+            + "order by h.scanDate desc, h.id desc")
+    List<HistoryDto> findPageAfter(@Param("userId") Long userId, @Param("scanDate") LocalDateTime scanDate,
+            @Param("id") Long id, Limit limit);
+
+    @Query("select new com.backend.dto.HistoryDto(h.id, h.barcode, h.productName, h.isSafe, h.scanDate, h.clientKey) "
+            + "from History h where h.user.id = :userId and h.clientKey in :clientKeys")
+    List<HistoryDto> findDtosByUserIdAndClientKeyIn(@Param("userId") Long userId,
+            @Param("clientKeys") Collection<String> clientKeys);
 }
@@ -1,16 +1,29 @@
 package com.backend.repository;
 
+import com.backend.dto.ProductDetailRow;
 import com.backend.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, String> {
     Optional<Product> findByBarcode(String barcode);
     Optional<Product> findByProductName(String productName);
 
-    @Query("select p from Product p left join fetch p.ingredients where p.barcode = :barcode")
-    Optional<Product> findWithIngredientsByBarcode(@Param("barcode") String barcode);
+    // Read-only projection: one statement, no managed entities. Names are matched trimmed, as
+    // DangerousIngredientIndex does; case is left to the column collation
+    String DETAIL_ROWS = "select new com.backend.dto.ProductDetailRow(p.barcode, p.productName, i.name, "
+            + "d.nameOfGradient, d.dangerLevel) "
+            + "from Product p left join p.ingredients i "
+            + "left join DangerousIngredients d on trim(d.nameOfGradient) = trim(i.name) ";
+
+    @Query(DETAIL_ROWS + "where p.barcode = :barcode")
+    List<ProductDetailRow> findDetailRowsByBarcode(@Param("barcode") String barcode);
+
+    @Query(DETAIL_ROWS + "where p.barcode in :barcodes")
+    List<ProductDetailRow> findDetailRowsByBarcodeIn(@Param("barcodes") Collection<String> barcodes);
 }
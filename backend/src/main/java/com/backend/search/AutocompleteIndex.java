@@ -0,0 +1,152 @@
+package com.backend.search;
+
+import com.backend.event.CatalogChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Type-ahead over allergy and ingredient names, answered from in-memory tries.
+ * Allergies rank by how many users have them, ingredients by how many products contain them.
+ * A trie is rebuilt in the background once its data changes: changes within the rebuild delay
+ * share one rebuild, and the committing thread does not wait for it. Product changes count for
+ * the ingredient trie too, since they move the product_ingredients counts.
+ */
+@Component
+public class AutocompleteIndex {
+
+    public enum Kind {
+        ALLERGY("select a.name, count(ua.user_id) from allergy a "
+                + "left join user_allergies ua on ua.allergy_id = a.allergy_id group by a.allergy_id, a.name"),
+        INGREDIENT("select i.name, count(pi.product_barcode) from ingredient i "
+                + "left join product_ingredients pi on pi.ingredient_id = i.ingredient_id "
+                + "group by i.ingredient_id, i.name");
+
+        private final String sql;
+
+        Kind(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final Duration rebuildDelay;
+    private final Map<Kind, AtomicBoolean> rebuildPending = new EnumMap<>(Kind.class);
+    private final ScheduledExecutorService rebuildExecutor;
+
+    private volatile CompletionTrie allergies;
+    private volatile CompletionTrie ingredients;
+
+    public AutocompleteIndex(JdbcTemplate jdbcTemplate,
+            @Value("${autocomplete.default-limit:10}") int defaultLimit,
+            @Value("${autocomplete.max-limit:20}") int maxLimit,
+            @Value("${autocomplete.rebuild-delay:5s}") Duration rebuildDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.rebuildDelay = rebuildDelay;
+        for (Kind kind : Kind.values()) {
+            rebuildPending.put(kind, new AtomicBoolean());
+        }
+        this.rebuildExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autocomplete-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<String> complete(Kind kind, String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidRequestException("q must not be blank");
+        }
+        int n = limit == null ? defaultLimit : limit;
+        if (n < 1 || n > maxLimit) {
+            throw new InvalidRequestException("limit must be between 1 and " + maxLimit);
+        }
+        return current(kind).complete(prefix, n);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.ALLERGY) {
+            scheduleRebuild(Kind.ALLERGY);
+        } else if (event.getType() == CatalogChangedEvent.Type.INGREDIENT
+                || event.getType() == CatalogChangedEvent.Type.PRODUCT) {
+            scheduleRebuild(Kind.INGREDIENT);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild(Kind kind) {
+        // Nothing to rebuild before the first lookup, which reads the current rows
+        if ((kind == Kind.ALLERGY ? allergies : ingredients) == null) {
+            return;
+        }
+        AtomicBoolean pending = rebuildPending.get(kind);
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.schedule(() -> {
+            // Cleared first, so a change committed while the rebuild reads schedules another
+            pending.set(false);
+            try {
+                refresh(kind);
+            } catch (RuntimeException e) {
+                logger.warn("Rebuilding the {} autocomplete failed, keeping the previous one", kind, e);
+            }
+        }, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void refresh(Kind kind) {
+        List<String> names = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        jdbcTemplate.query(kind.sql, (RowCallbackHandler) rs -> {
+            names.add(rs.getString(1));
+            weights.add(rs.getLong(2));
+        });
+        CompletionTrie trie = new CompletionTrie(names, weights, maxLimit);
+        if (kind == Kind.ALLERGY) {
+            allergies = trie;
+        } else {
+            ingredients = trie;
+        }
+    }
+
+    private CompletionTrie current(Kind kind) {
+        CompletionTrie trie = kind == Kind.ALLERGY ? allergies : ingredients;
+        if (trie == null) {
+            synchronized (this) {
+                trie = kind == Kind.ALLERGY ? allergies : ingredients;
+                if (trie == null) {
+                    refresh(kind);
+                    trie = kind == Kind.ALLERGY ? allergies : ingredients;
+                }
+            }
+        }
+        return trie;
+    }
+}
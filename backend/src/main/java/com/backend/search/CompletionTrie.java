@@ -0,0 +1,218 @@
+package com.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable radix trie for type-ahead. Every name is indexed under its folded form and under
+ * the folded text from each later word on, so "Skimmed Milk Powder" completes "milk" as well as
+ * "skim". Keys are sorted, which makes the keys below any node one contiguous range; nodes with
+ * large ranges keep their best entries precomputed, so a lookup is a walk down the prefix plus
+ * at most a small sort.
+ */
+final class CompletionTrie {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::text);
+
+    private final String[] names;
+    private final long[] weights;
+    private final String[] keys;
+    private final int[] keyEntries;
+    private final int maxResults;
+
+    // Nodes
+    private final int[] rangeStart;
+    private final int[] rangeEnd;
+    private final int[] firstEdge;
+    private final int[] edgeCount;
+    private final int[][] best;
+
+    // Edges, sorted by first character within a node
+    private final char[] edgeChar;
+    private final String[] edgeLabel;
+    private final int[] edgeTarget;
+
+    /**
+     * Entries are (name, weight) pairs; a higher weight ranks first.
+     */
+    CompletionTrie(List<String> entryNames, List<Long> entryWeights, int maxResults) {
+        this.maxResults = maxResults;
+        this.names = entryNames.toArray(new String[0]);
+        this.weights = entryWeights.stream().mapToLong(Long::longValue).toArray();
+
+        List<Key> sorted = new ArrayList<>();
+        for (int entry = 0; entry < names.length; entry++) {
+            if (names[entry] == null) {
+                continue;
+            }
+            String folded = TextFolding.fold(names[entry].trim());
+            for (int start = 0; start < folded.length(); start++) {
+                boolean wordStart = Character.isLetterOrDigit(folded.charAt(start))
+                        && (start == 0 || !Character.isLetterOrDigit(folded.charAt(start - 1)));
+                if (wordStart) {
+                    sorted.add(new Key(folded.substring(start), entry));
+                }
+            }
+        }
+        sorted.sort(KEY_ORDER);
+        this.keys = new String[sorted.size()];
+        this.keyEntries = new int[sorted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sorted.get(i).text();
+            keyEntries[i] = sorted.get(i).entry();
+        }
+
+        Builder builder = new Builder();
+        builder.build(0, keys.length, 0);
+        this.rangeStart = builder.rangeStart.stream().mapToInt(Integer::intValue).toArray();
+        this.rangeEnd = builder.rangeEnd.stream().mapToInt(Integer::intValue).toArray();
+        this.firstEdge = builder.firstEdge.stream().mapToInt(Integer::intValue).toArray();
+        this.edgeCount = builder.edgeCount.stream().mapToInt(Integer::intValue).toArray();
+        this.edgeChar = new char[builder.edgeLabel.size()];
+        this.edgeLabel = builder.edgeLabel.toArray(new String[0]);
+        this.edgeTarget = builder.edgeTarget.stream().mapToInt(Integer::intValue).toArray();
+        for (int i = 0; i < edgeChar.length; i++) {
+            edgeChar[i] = edgeLabel[i].charAt(0);
+        }
+        this.best = new int[rangeStart.length][];
+        for (int node = 0; node < best.length; node++) {
+            if (rangeEnd[node] - rangeStart[node] > maxResults * 4) {
+                best[node] = rank(rangeStart[node], rangeEnd[node], maxResults);
+            }
+        }
+    }
+
+    /**
+     * Up to limit (at most the size this trie was built for) names completing the folded prefix.
+     */
+    List<String> complete(String prefix, int limit) {
+        String folded = TextFolding.fold(prefix.trim());
+        int node = find(folded);
+        if (node < 0) {
+            return List.of();
+        }
+        int[] ranked = best[node] != null ? best[node] : rank(rangeStart[node], rangeEnd[node], limit);
+        List<String> result = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int i = 0; i < ranked.length && i < limit; i++) {
+            result.add(names[ranked[i]]);
+        }
+        return result;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    private int find(String prefix) {
+        int node = 0;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int edge = findEdge(node, prefix.charAt(depth));
+            if (edge < 0) {
+                return -1;
+            }
+            String label = edgeLabel[edge];
+            int length = Math.min(label.length(), prefix.length() - depth);
+            if (!prefix.regionMatches(depth, label, 0, length)) {
+                return -1;
+            }
+            depth += length;
+            node = edgeTarget[edge];
+        }
+        return node;
+    }
+
+    private int findEdge(int node, char c) {
+        int low = firstEdge[node];
+        int high = low + edgeCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (edgeChar[mid] < c) {
+                low = mid + 1;
+            } else if (edgeChar[mid] > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Distinct entries of the key range, best first: weight, then shorter name, then name.
+     */
+    private int[] rank(int from, int to, int limit) {
+        int[] entries = Arrays.stream(keyEntries, from, to).distinct().boxed()
+                .sorted(Comparator.<Integer>comparingLong(e -> -weights[e])
+                        .thenComparingInt(e -> names[e].length())
+                        .thenComparing(e -> names[e]))
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return entries;
+    }
+
+    private record Key(String text, int entry) {
+    }
+
+    private final class Builder {
+        final List<Integer> rangeStart = new ArrayList<>();
+        final List<Integer> rangeEnd = new ArrayList<>();
+        final List<Integer> firstEdge = new ArrayList<>();
+        final List<Integer> edgeCount = new ArrayList<>();
+        final List<String> edgeLabel = new ArrayList<>();
+        final List<Integer> edgeTarget = new ArrayList<>();
+
+        /**
+         * Builds the node for keys[from, to), which share their first depth characters.
+         */
+        int build(int from, int to, int depth) {
+            int node = rangeStart.size();
+            rangeStart.add(from);
+            rangeEnd.add(to);
+            firstEdge.add(0);
+            edgeCount.add(0);
+
+            int start = from;
+            while (start < to && keys[start].length() == depth) {
+                start++;
+            }
+            List<int[]> groups = new ArrayList<>();
+            while (start < to) {
+                char c = keys[start].charAt(depth);
+                int end = start + 1;
+                while (end < to && keys[end].charAt(depth) == c) {
+                    end++;
+                }
+                groups.add(new int[] { start, end });
+                start = end;
+            }
+
+            // Children first, then this node's edges as one contiguous block
+            List<String> labels = new ArrayList<>(groups.size());
+            List<Integer> targets = new ArrayList<>(groups.size());
+            for (int[] group : groups) {
+                String first = keys[group[0]];
+                int common = commonPrefix(first, keys[group[1] - 1]);
+                labels.add(first.substring(depth, common));
+                targets.add(build(group[0], group[1], common));
+            }
+            firstEdge.set(node, edgeLabel.size());
+            edgeCount.set(node, groups.size());
+            edgeLabel.addAll(labels);
+            edgeTarget.addAll(targets);
+            return node;
+        }
+
+        private int commonPrefix(String a, String b) {
+            int length = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < length && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.backend.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Ascending document ids stored as varint-encoded gaps. One writer appends, any number of
+ * readers iterate without locking: the bytes are written before {@code size} is published.
+ */
+final class PostingList {
+
+    private volatile byte[] data = new byte[4];
+    private volatile int size;
+    private volatile int count;
+    private int last = -1;
+
+    /**
+     * Appends a document id; ids must arrive in ascending order and repeats are ignored.
+     * Returns the number of bytes added.
+     */
+    int add(int docId) {
+        if (docId <= last) {
+            return 0;
+        }
+        int gap = docId - last;
+        byte[] bytes = data;
+        int position = size;
+        if (position + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + 5));
+        }
+        while ((gap & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        bytes[position++] = (byte) gap;
+
+        int added = position - size;
+        data = bytes;
+        size = position;
+        count = count + 1;
+        last = docId;
+        return added;
+    }
+
+    void forEach(IntConsumer consumer) {
+        int end = size;
+        byte[] bytes = data;
+        int docId = -1;
+        int position = 0;
+        while (position < end) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            docId += gap;
+            consumer.accept(docId);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+}
@@ -0,0 +1,482 @@
+package com.backend.search;
+
+import com.backend.dto.ProductDto;
+import com.backend.event.CatalogChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Inverted index over folded product name tokens. Every query token matches the terms it is a
+ * prefix of; a product must match all tokens. Results are ranked by the idf of the matched terms
+ * (exact terms above prefix expansions) normalized by name length.
+ * <p>
+ * Documents only ever get appended: a renamed product gets a new document id and its old one is
+ * skipped at query time, so postings stay sorted and readers need no lock. The index is rebuilt
+ * from the product table at startup, and in the background once too many dead documents pile up;
+ * products changed while that rebuild reads are carried over before it is swapped in.
+ */
+@Component
+public class ProductNameIndex implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductNameIndex.class);
+
+    private static final float PREFIX_WEIGHT = 0.8f;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxExpansions;
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor;
+
+    private volatile Index index;
+    // Barcodes updated since the background rebuild started reading, guarded by this
+    private Set<String> changedDuringRebuild;
+
+    public ProductNameIndex(JdbcTemplate jdbcTemplate,
+            @Value("${product-name-search.default-limit:10}") int defaultLimit,
+            @Value("${product-name-search.max-limit:50}") int maxLimit,
+            @Value("${product-name-search.max-prefix-expansions:64}") int maxExpansions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxExpansions = maxExpansions;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "product-name-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns up to limit products whose name matches every token of the query, best first.
+     */
+    public List<ProductDto> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("q must not be blank");
+        }
+        int k = limit == null ? defaultLimit : limit;
+        if (k < 1 || k > maxLimit) {
+            throw new InvalidRequestException("limit must be between 1 and " + maxLimit);
+        }
+        Set<String> tokens = new LinkedHashSet<>(TextFolding.tokens(query));
+        if (tokens.isEmpty()) {
+            throw new InvalidRequestException("q must contain letters or digits");
+        }
+
+        Index ix = current();
+        List<TokenMatch> matches = new ArrayList<>();
+        for (String token : tokens) {
+            Map<String, PostingList> terms = ix.expand(token, maxExpansions);
+            if (terms.isEmpty()) {
+                return Collections.emptyList();
+            }
+            matches.add(new TokenMatch(token, terms));
+        }
+        // Rarest token first keeps the candidate set small
+        matches.sort(Comparator.comparingLong(TokenMatch::postings));
+
+        Docs docs = ix.docs;
+        int documents = Math.max(1, ix.liveCount());
+        ScoredDocs candidates = null;
+        for (TokenMatch match : matches) {
+            candidates = candidates == null
+                    ? ScoredDocs.matching(match, documents, docs.barcodes.length)
+                    : candidates.narrow(match, documents);
+            if (candidates.size == 0) {
+                return Collections.emptyList();
+            }
+        }
+
+        PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredDoc::score)
+                .thenComparing(Comparator.comparingInt(ScoredDoc::docId).reversed()));
+        for (int i = 0; i < candidates.size; i++) {
+            int docId = candidates.docIds[i];
+            if (ix.isLive(docs, docId)) {
+                top.offer(new ScoredDoc(docId, candidates.scores[i] / (float) Math.sqrt(docs.lengths[docId])));
+                if (top.size() > k) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<ProductDto> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int docId = top.poll().docId();
+            result.add(new ProductDto(docs.barcodes[docId], docs.names[docId]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.PRODUCT && event.getKey() != null) {
+            update(event.getKey());
+        }
+    }
+
+    public synchronized void update(String barcode) {
+        Index ix = index;
+        if (ix == null) {
+            return;
+        }
+        List<String> names = jdbcTemplate.queryForList("select product_name from product where barcode = ?",
+                String.class, barcode);
+        if (names.isEmpty()) {
+            ix.remove(barcode);
+        } else {
+            ix.put(barcode, names.get(0));
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(barcode);
+        }
+        if (ix.deadCount > Math.max(10_000, ix.liveCount() / 4)) {
+            scheduleRebuild();
+        }
+    }
+
+    public synchronized void refresh() {
+        index = load();
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("Rebuilding the product name index failed, keeping the previous one", e);
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                rebuildPending.set(false);
+            }
+        });
+    }
+
+    /**
+     * Reads the product table without holding the monitor, so updates keep landing in the current
+     * index meanwhile. Those barcodes are then copied from it into the fresh index, which already
+     * reflects every commit before the read.
+     */
+    private void rebuild() {
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        Index fresh = load();
+        synchronized (this) {
+            Index ix = index;
+            for (String barcode : changedDuringRebuild) {
+                Integer docId = ix.docByBarcode.get(barcode);
+                if (docId == null) {
+                    fresh.remove(barcode);
+                } else {
+                    fresh.put(barcode, ix.docs.names[docId]);
+                }
+            }
+            index = fresh;
+        }
+    }
+
+    private Index load() {
+        Index fresh = new Index();
+        jdbcTemplate.query("select barcode, product_name from product",
+                (RowCallbackHandler) rs -> fresh.put(rs.getString(1), rs.getString(2)));
+        return fresh;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.name.index.documents", this, i -> i.index == null ? 0 : i.index.liveCount())
+                .description("Products searchable by name")
+                .register(registry);
+        Gauge.builder("product.name.index.terms", this, i -> i.index == null ? 0 : i.index.terms.size())
+                .description("Distinct name tokens in the index")
+                .register(registry);
+        Gauge.builder("product.name.index.postings", this, i -> i.index == null ? 0 : i.index.postingBytes)
+                .description("Size of the compressed posting lists")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private Index current() {
+        Index ix = index;
+        if (ix == null) {
+            synchronized (this) {
+                if (index == null) {
+                    refresh();
+                }
+                ix = index;
+            }
+        }
+        return ix;
+    }
+
+    private record TokenMatch(String token, Map<String, PostingList> terms) {
+        long postings() {
+            long total = 0;
+            for (PostingList postings : terms.values()) {
+                total += postings.count();
+            }
+            return total;
+        }
+    }
+
+    private record ScoredDoc(int docId, float score) {
+    }
+
+    /**
+     * Documents matching every token so far, in ascending id order, with their summed scores.
+     * Kept in primitive arrays so a common token does not box an entry per matching document.
+     */
+    private static final class ScoredDocs {
+        final int[] docIds;
+        final float[] scores;
+        int size;
+
+        private ScoredDocs(int[] docIds, float[] scores, int size) {
+            this.docIds = docIds;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /**
+         * Documents matching any term of the token, each with the weight of its best term.
+         * Ids from docLimit on were added after the caller's view of the documents and are skipped.
+         */
+        static ScoredDocs matching(TokenMatch match, int documents, int docLimit) {
+            Hits hits = new Hits((int) Math.min(match.postings(), Integer.MAX_VALUE - 8));
+            match.terms().forEach((term, postings) -> {
+                // Weights are positive, so their bits sort like their values
+                long bits = Float.floatToIntBits(weight(match, term, postings, documents));
+                postings.forEach(docId -> {
+                    if (docId < docLimit) {
+                        hits.add((long) docId << 32 | bits);
+                    }
+                });
+            });
+            long[] sorted = hits.values;
+            Arrays.sort(sorted, 0, hits.size);
+
+            int[] docIds = new int[hits.size];
+            float[] scores = new float[hits.size];
+            int size = 0;
+            for (int i = 0; i < hits.size; i++) {
+                int docId = (int) (sorted[i] >>> 32);
+                // The last hit of a document carries its largest weight
+                if (i + 1 < hits.size && (int) (sorted[i + 1] >>> 32) == docId) {
+                    continue;
+                }
+                docIds[size] = docId;
+                scores[size] = Float.intBitsToFloat((int) sorted[i]);
+                size++;
+            }
+            return new ScoredDocs(docIds, scores, size);
+        }
+
+        /**
+         * Keeps the documents that also match one of the token's terms and adds its best weight.
+         * Both the postings and the candidates are sorted, so each term is a single merge pass.
+         */
+        ScoredDocs narrow(TokenMatch match, int documents) {
+            float[] best = new float[size];
+            match.terms().forEach((term, postings) -> {
+                float weight = weight(match, term, postings, documents);
+                postings.forEach(new IntConsumer() {
+                    private int position;
+
+                    @Override
+                    public void accept(int docId) {
+                        while (position < size && docIds[position] < docId) {
+                            position++;
+                        }
+                        if (position < size && docIds[position] == docId && best[position] < weight) {
+                            best[position] = weight;
+                        }
+                    }
+                });
+            });
+
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (best[i] > 0) {
+                    docIds[kept] = docIds[i];
+                    scores[kept] = scores[i] + best[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return this;
+        }
+
+        private static float weight(TokenMatch match, String term, PostingList postings, int documents) {
+            float idf = (float) Math.log(1.0 + (double) documents / Math.max(1, postings.count()));
+            return term.equals(match.token()) ? idf : idf * PREFIX_WEIGHT;
+        }
+    }
+
+    /**
+     * Growable buffer of packed (document id, weight bits) pairs.
+     */
+    private static final class Hits {
+        long[] values;
+        int size;
+
+        Hits(int capacity) {
+            this.values = new long[Math.max(16, capacity)];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Per-document arrays, replaced as a whole when they grow.
+     */
+    private static final class Docs {
+        final String[] barcodes;
+        final String[] names;
+        final int[] lengths;
+
+        Docs(int capacity) {
+            this(new String[capacity], new String[capacity], new int[capacity]);
+        }
+
+        Docs(String[] barcodes, String[] names, int[] lengths) {
+            this.barcodes = barcodes;
+            this.names = names;
+            this.lengths = lengths;
+        }
+
+        Docs grow() {
+            int capacity = barcodes.length * 2;
+            return new Docs(Arrays.copyOf(barcodes, capacity), Arrays.copyOf(names, capacity),
+                    Arrays.copyOf(lengths, capacity));
+        }
+    }
+
+    /**
+     * Single writer (the enclosing index's monitor), lock-free readers.
+     */
+    private static final class Index {
+        final ConcurrentSkipListMap<String, PostingList> terms = new ConcurrentSkipListMap<>();
+        final Map<String, Integer> docByBarcode = new ConcurrentHashMap<>();
+        volatile Docs docs = new Docs(1024);
+        volatile long postingBytes;
+        int docCount;
+        int deadCount;
+
+        void put(String barcode, String name) {
+            Integer existing = docByBarcode.get(barcode);
+            if (existing != null && Objects.equals(docs.names[existing], name)) {
+                return;
+            }
+
+            List<String> tokens = name == null ? List.of() : TextFolding.tokens(name);
+            int docId = docCount++;
+            Docs d = docs;
+            if (docId == d.barcodes.length) {
+                d = d.grow();
+            }
+            d.barcodes[docId] = barcode;
+            d.names[docId] = name;
+            d.lengths[docId] = Math.max(1, tokens.size());
+            docs = d;
+
+            long added = 0;
+            for (String token : tokens) {
+                added += terms.computeIfAbsent(token, t -> new PostingList()).add(docId);
+            }
+            postingBytes += added;
+            // Publishing the new id retires the old document
+            docByBarcode.put(barcode, docId);
+            if (existing != null) {
+                deadCount++;
+            }
+        }
+
+        void remove(String barcode) {
+            if (docByBarcode.remove(barcode) != null) {
+                deadCount++;
+            }
+        }
+
+        boolean isLive(Docs d, int docId) {
+            Integer current = docByBarcode.get(d.barcodes[docId]);
+            return current != null && current == docId;
+        }
+
+        int liveCount() {
+            return docByBarcode.size();
+        }
+
+        /**
+         * The token itself (if indexed) plus up to maxExpansions longer terms starting with it.
+         * Single-character tokens only match exactly.
+         */
+        Map<String, PostingList> expand(String token, int maxExpansions) {
+            Map<String, PostingList> matched = new HashMap<>();
+            PostingList exact = terms.get(token);
+            if (exact != null) {
+                matched.put(token, exact);
+            }
+            if (token.length() < 2) {
+                return matched;
+            }
+            ConcurrentNavigableMap<String, PostingList> range = terms.subMap(token, false, token + Character.MAX_VALUE,
+                    false);
+            int expansions = 0;
+            for (Map.Entry<String, PostingList> entry : range.entrySet()) {
+                if (expansions++ == maxExpansions) {
+                    break;
+                }
+                matched.put(entry.getKey(), entry.getValue());
+            }
+            return matched;
+        }
+    }
+}
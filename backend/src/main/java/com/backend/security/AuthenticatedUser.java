@@ -0,0 +1,30 @@
+package com.backend.security;
+
+/**
+ * Security principal built from the verified JWT claims in {@link JwtAuthFilter}.
+ * Controllers receive it through {@code @AuthenticationPrincipal} instead of re-parsing the token.
+ */
+public class AuthenticatedUser {
+
+    private final Long userId;
+    private final String email;
+    private final String role;
+
+    public AuthenticatedUser(Long userId, String email, String role) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
@@ -18,6 +18,10 @@ public class CustomUserDetails implements UserDetails {
     public CustomUserDetails() {
     }
 
+    public User getUser() {
+        return user;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singleton(user.getRole());
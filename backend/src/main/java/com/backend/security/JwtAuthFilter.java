@@ -1,50 +1,107 @@
 package com.backend.security;
 
+import com.backend.model.Role;
+import com.backend.model.User;
 import com.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final boolean statelessAuth;
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService,
+            TokenVersionCache tokenVersionCache,
+            @Value("${jwt.stateless-auth.enabled:false}") boolean statelessAuth) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.statelessAuth = statelessAuth;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String header = request.getHeader("Authorization");
-        String jwt = null;
-        String username = null;
+        Claims claims = null;
         if(header != null && header.startsWith("Bearer ")){
-            jwt = header.substring(7).trim();
-            username = jwtService.extractMail(jwt);
+            try {
+                // Signature and expiry are verified here, once per request
+                claims = jwtService.parseClaims(header.substring(7).trim());
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Rejected JWT: " + e.getMessage());
+            }
         }
 
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if(userDetails != null && jwtService.validateToken(jwt, username)){
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+        if(claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null){
+            UsernamePasswordAuthenticationToken authentication = statelessAuth && claims.get("uid") != null
+                    ? authenticateFromClaims(claims)
+                    : authenticateFromDatabase(claims);
+            if(authentication != null){
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Trusts the signed claims; only the token version is checked, against a cached value
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(Claims claims) {
+        Long userId = claims.get("uid", Long.class);
+        String role = claims.get("role", String.class);
+        if (role == null || !tokenVersionCache.isCurrent(userId, tokenVersion(claims))) {
+            return null;
+        }
+        AuthenticatedUser principal = new AuthenticatedUser(userId, claims.getSubject(), role);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities(role));
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(Claims claims) {
+        CustomUserDetails userDetails;
+        try {
+            userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        User user = userDetails.getUser();
+        if (tokenVersion(claims) < user.getTokenVersion()) {
+            return null;
+        }
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole().name());
+        return new UsernamePasswordAuthenticationToken(principal, null, userDetails.getAuthorities());
+    }
+
+    private static int tokenVersion(Claims claims) {
+        // Tokens issued before versioning was added count as version 0
+        Integer version = claims.get("ver", Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    private static Collection<? extends GrantedAuthority> authorities(String role) {
+        try {
+            return Collections.singleton(Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return Collections.emptySet();
+        }
+    }
+}
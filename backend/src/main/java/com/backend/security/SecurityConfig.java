@@ -1,9 +1,12 @@
 package com.backend.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -11,12 +14,17 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -29,6 +37,39 @@ public class SecurityConfig {
         this.jwtAuthFilter = jwtAuthFilter;
     }
 
+    /**
+     * Actuator endpoints. Everything but health needs the METRICS or ADMIN role: Prometheus scrapes
+     * with HTTP Basic as the metrics.scrape user, admins can use their token; without a configured
+     * scrape password only admins can read the metrics.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http,
+            @Value("${metrics.scrape.username:prometheus}") String scrapeUsername,
+            @Value("${metrics.scrape.password:}") String scrapePassword) throws Exception {
+        List<UserDetails> scrapers = scrapePassword.isEmpty() ? List.of()
+                : List.of(User.withUsername(scrapeUsername)
+                        .password(encoder().encode(scrapePassword))
+                        .roles("METRICS")
+                        .build());
+        DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(scrapers));
+        scrapeProvider.setPasswordEncoder(encoder());
+
+        return http
+                .securityMatcher("/actuator/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(
+                        x -> x
+                                .requestMatchers("/actuator/health").permitAll()
+                                // metrics and info expose the same meters as prometheus, so no user token will do
+                                .anyRequest().hasAnyRole("METRICS", "ADMIN"))
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(new ProviderManager(scrapeProvider))
+                .sessionManagement(x -> x.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
@@ -0,0 +1,60 @@
+package com.backend.security;
+
+import com.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current token version per user id. Tokens carrying an older version are rejected,
+ * which is how stateless tokens get revoked; each user costs at most one read per TTL.
+ */
+@Component
+public class TokenVersionCache implements MeterBinder {
+
+    // Cached for users that no longer exist, so every token they hold is rejected
+    private static final int DELETED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> cache;
+
+    public TokenVersionCache(UserRepository userRepository,
+            @Value("${jwt.token-version-cache.maximum-size:100000}") long maximumSize,
+            @Value("${jwt.token-version-cache.ttl:1m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = cache.get(userId, id -> userRepository.findTokenVersionById(id).orElse(DELETED));
+        return tokenVersion >= current;
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tokenVersions");
+    }
+}
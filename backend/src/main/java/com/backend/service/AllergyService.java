@@ -1,14 +1,21 @@
 package com.backend.service;
 
+import com.backend.cache.AllergenIndex;
+import com.backend.cache.UserAllergenMaskCache;
 import com.backend.dto.AllergyDto;
 import com.backend.dto.converter.AllergyConverter;
 import com.backend.model.Allergy;
-import com.backend.model.User;
 import com.backend.repository.AllergyRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -16,35 +23,31 @@ public class AllergyService {
 
     private final AllergyRepository allergyRepository;
     private final AllergyConverter allergyConverter;
-    private final UserService userService;
+    private final AllergenIndex allergenIndex;
+    private final UserAllergenMaskCache userAllergenMaskCache;
 
     public AllergyService(AllergyRepository allergyRepository, AllergyConverter allergyConverter,
-            UserService userService) {
+            AllergenIndex allergenIndex, UserAllergenMaskCache userAllergenMaskCache) {
         this.allergyRepository = allergyRepository;
         this.allergyConverter = allergyConverter;
-        this.userService = userService;
+        this.allergenIndex = allergenIndex;
+        this.userAllergenMaskCache = userAllergenMaskCache;
     }
 
-    public AllergyDto saveAllergyForAUser(AllergyDto allergyDto, String userEmail) {
-        User user = userService.findUserByEmail(userEmail);
+    // Allergy names are resolved from the in-memory catalog and only the join row is written
+    @Transactional
+    public AllergyDto saveAllergyForAUser(AllergyDto allergyDto, Long userId) {
+        Long allergyId = resolveAllergyId(allergyDto);
 
-        Allergy allergy = allergyRepository.findByName(allergyDto.getAllergy_name());
-        if (allergy == null) {
-            throw new EntityNotFoundException("Allergy not found: " + allergyDto.getAllergy_name());
-        }
-
-        if (!user.getAllergies().contains(allergy)) {
-            user.getAllergies().add(allergy);
-        }
-
-        userService.updateUser(user);
+        allergyRepository.addUserAllergies(userId, List.of(allergyId));
+        long allergyBit = allergenIndex.allergyBit(allergyDto.getAllergy_name());
+        afterCommit(() -> userAllergenMaskCache.addAllergy(userId, allergyBit));
 
-        return new AllergyDto(allergy.getId(), allergy.getName());
+        return new AllergyDto(allergyId, allergenIndex.allergyName(allergyId));
     }
 
-    public List<AllergyDto> getAllAllergy(String userEmail) {
-        User user = userService.findUserByEmail(userEmail);
-        List<Allergy> allergies = user.getAllergies(); // Get user's ACTUAL allergies
+    public List<AllergyDto> getAllAllergy(Long userId) {
+        List<Allergy> allergies = allergyRepository.findAllByUserId(userId); // Get user's ACTUAL allergies
 
         if (allergies == null || allergies.isEmpty()) {
             return Collections.emptyList();
@@ -55,13 +58,73 @@ public class AllergyService {
                 .toList();
     }
 
-    public void deleteAAllergyForUser(AllergyDto allergyDto, String userEmail) {
-        User user = userService.findUserByEmail(userEmail);
-        Allergy allergy = allergyRepository.findByName(allergyDto.getAllergy_name());
-        if (allergy == null) {
+    /**
+     * Replaces the user's allergy set. Only the join rows that differ from the stored set
+     * are deleted or inserted.
+     */
+    @Transactional
+    public List<AllergyDto> replaceAllergiesForUser(List<AllergyDto> allergyDtos, Long userId) {
+        Set<Long> wanted = new LinkedHashSet<>();
+        if (allergyDtos != null) {
+            for (AllergyDto allergyDto : allergyDtos) {
+                wanted.add(resolveAllergyId(allergyDto));
+            }
+        }
+
+        Set<Long> current = new HashSet<>(allergyRepository.findAllergyIdsByUserId(userId));
+
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(wanted);
+        if (!removed.isEmpty()) {
+            allergyRepository.removeUserAllergies(userId, removed);
+        }
+
+        Set<Long> added = new HashSet<>(wanted);
+        added.removeAll(current);
+        if (!added.isEmpty()) {
+            allergyRepository.addUserAllergies(userId, added);
+        }
+
+        // Evicted rather than recomputed: a mask built here could overwrite that of a replace committing later
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            afterCommit(() -> userAllergenMaskCache.invalidate(userId));
+        }
+
+        return wanted.stream()
+                .map(allergyId -> new AllergyDto(allergyId, allergenIndex.allergyName(allergyId)))
+                .toList();
+    }
+
+    @Transactional
+    public void deleteAAllergyForUser(AllergyDto allergyDto, Long userId) {
+        Long allergyId = resolveAllergyId(allergyDto);
+        allergyRepository.removeUserAllergies(userId, List.of(allergyId));
+        long allergyBit = allergenIndex.allergyBit(allergyDto.getAllergy_name());
+        afterCommit(() -> userAllergenMaskCache.removeAllergy(userId, allergyBit));
+    }
+
+    /**
+     * Runs a cache update once the transaction has committed, so a rollback leaves the cached mask
+     * alone and a lookup racing the commit cannot cache the old rows again.
+     */
+    private static void afterCommit(Runnable cacheUpdate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheUpdate.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cacheUpdate.run();
+            }
+        });
+    }
+
+    private Long resolveAllergyId(AllergyDto allergyDto) {
+        Long allergyId = allergenIndex.allergyId(allergyDto.getAllergy_name());
+        if (allergyId == null) {
             throw new EntityNotFoundException("Allergy not found: " + allergyDto.getAllergy_name());
         }
-        user.getAllergies().remove(allergy);
-        userService.updateUser(user);
+        return allergyId;
     }
 }
@@ -1,7 +1,7 @@
 package com.backend.service;
 
+import com.backend.cache.DangerousIngredientIndex;
 import com.backend.model.DangerousIngredients;
-import com.backend.repository.DangerousIngredientsRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -9,13 +9,13 @@ import java.util.List;
 @Service
 public class DangerousIngredientsService {
 
-    private final DangerousIngredientsRepository dangerousGradientsRepository;
+    private final DangerousIngredientIndex dangerousIngredientIndex;
 
-    public DangerousIngredientsService(DangerousIngredientsRepository dangerousGradientsRepository) {
-        this.dangerousGradientsRepository = dangerousGradientsRepository;
+    public DangerousIngredientsService(DangerousIngredientIndex dangerousIngredientIndex) {
+        this.dangerousIngredientIndex = dangerousIngredientIndex;
     }
 
     public List<DangerousIngredients> getAllDangerousGradients() {
-        return dangerousGradientsRepository.findAll();
+        return dangerousIngredientIndex.all();
     }
 }
@@ -1,61 +1,223 @@
 package com.backend.service;
 
 import com.backend.dto.HistoryDto;
+import com.backend.dto.HistoryPageDto;
+import com.backend.exception.InvalidRequestException;
+import com.backend.ingest.HistoryBatchWriter;
+import com.backend.ingest.HistoryWriteBehindBuffer;
+import com.backend.ingest.PendingScan;
 import com.backend.model.History;
 import com.backend.model.User;
 import com.backend.repository.HistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class HistoryService {
 
     private final HistoryRepository historyRepository;
     private final UserService userService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBulkSize;
+    private final HistoryBatchWriter historyBatchWriter;
+    private final HistoryWriteBehindBuffer writeBehindBuffer;
 
-    public HistoryService(HistoryRepository historyRepository, UserService userService) {
+    public HistoryService(HistoryRepository historyRepository, UserService userService,
+            @Value("${history.page.default-size:20}") int defaultPageSize,
+            @Value("${history.page.max-size:100}") int maxPageSize,
+            @Value("${history.bulk.max-size:500}") int maxBulkSize,
+            HistoryBatchWriter historyBatchWriter,
+            Optional<HistoryWriteBehindBuffer> writeBehindBuffer) {
         this.historyRepository = historyRepository;
         this.userService = userService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkSize = maxBulkSize;
+        this.historyBatchWriter = historyBatchWriter;
+        this.writeBehindBuffer = writeBehindBuffer.orElse(null);
     }
 
-    public HistoryDto saveHistory(HistoryDto historyDto, String userEmail) {
-        User user = userService.findUserByEmail(userEmail);
+    /**
+     * Stores a scan. In write-behind mode the scan is only queued and the returned dto has no id.
+     * A scan whose idempotency key is already stored for the user returns the stored row.
+     */
+    public HistoryDto saveHistory(HistoryDto historyDto, Long userId) {
+        String key = historyDto.getIdempotencyKey();
+        if (key != null && key.length() > 64) {
+            throw new InvalidRequestException("idempotencyKey must be at most 64 characters");
+        }
+        HistoryDto existing = findByClientKey(userId, key);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (writeBehindBuffer != null) {
+            LocalDateTime scanDate = historyDto.getScanDate() != null ? historyDto.getScanDate() : LocalDateTime.now();
+            writeBehindBuffer.enqueue(new PendingScan(userId, historyDto.getBarcode(), historyDto.getProductName(),
+                    historyDto.getIsSafe(), scanDate, key));
+            return new HistoryDto(null, historyDto.getBarcode(), historyDto.getProductName(),
+                    historyDto.getIsSafe(), scanDate, key);
+        }
+
+        // A reference is enough for the foreign key, no need to load the user
+        User user = userService.getUserReference(userId);
 
         History history = new History(
                 historyDto.getBarcode(),
                 historyDto.getProductName(),
                 historyDto.getIsSafe(),
-                historyDto.getScanDate(),
+                // Keyset pagination needs a scan date on every row
+                historyDto.getScanDate() != null ? historyDto.getScanDate() : LocalDateTime.now(),
                 user);
+        history.setClientKey(key);
 
-        History saved = historyRepository.save(history);
+        History saved;
+        try {
+            saved = historyRepository.save(history);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key won the insert
+            existing = findByClientKey(userId, key);
+            if (existing == null) {
+                throw e;
+            }
+            return existing;
+        }
 
         return new HistoryDto(
                 saved.getId(),
                 saved.getBarcode(),
                 saved.getProductName(),
                 saved.getIsSafe(),
-                saved.getScanDate());
+                saved.getScanDate(),
+                saved.getClientKey());
+    }
+
+    private HistoryDto findByClientKey(Long userId, String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        List<HistoryDto> stored = historyRepository.findDtosByUserIdAndClientKeyIn(userId, List.of(key));
+        return stored.isEmpty() ? null : stored.get(0);
+    }
+
+    /**
+     * Uploads scans recorded offline. Scans whose idempotency key is already stored for the user
+     * are skipped, so replaying the same upload is safe. Returns the stored row for every key,
+     * in request order.
+     */
+    @Transactional
+    public List<HistoryDto> syncHistory(List<HistoryDto> scans, Long userId) {
+        if (scans == null || scans.isEmpty()) {
+            throw new InvalidRequestException("scans must not be empty");
+        }
+        if (scans.size() > maxBulkSize) {
+            throw new InvalidRequestException("at most " + maxBulkSize + " scans can be uploaded at once");
+        }
+
+        Map<String, HistoryDto> byKey = new LinkedHashMap<>();
+        for (HistoryDto scan : scans) {
+            String key = scan.getIdempotencyKey();
+            if (key == null || key.isBlank() || key.length() > 64) {
+                throw new InvalidRequestException("every scan needs an idempotencyKey of at most 64 characters");
+            }
+            byKey.putIfAbsent(key, scan);
+        }
+
+        Map<String, HistoryDto> stored = new HashMap<>();
+        for (HistoryDto existing : historyRepository.findDtosByUserIdAndClientKeyIn(userId, byKey.keySet())) {
+            stored.put(existing.getIdempotencyKey(), existing);
+        }
+
+        List<PendingScan> fresh = new ArrayList<>();
+        for (HistoryDto scan : byKey.values()) {
+            if (!stored.containsKey(scan.getIdempotencyKey())) {
+                fresh.add(new PendingScan(userId, scan.getBarcode(), scan.getProductName(), scan.getIsSafe(),
+                        scan.getScanDate() != null ? scan.getScanDate() : LocalDateTime.now(),
+                        scan.getIdempotencyKey()));
+            }
+        }
+
+        if (!fresh.isEmpty()) {
+            // Keys a concurrent upload stored in the meantime are skipped by the writer and read back below
+            historyBatchWriter.insert(fresh);
+            List<String> freshKeys = fresh.stream().map(PendingScan::clientKey).toList();
+            for (HistoryDto inserted : historyRepository.findDtosByUserIdAndClientKeyIn(userId, freshKeys)) {
+                stored.put(inserted.getIdempotencyKey(), inserted);
+            }
+        }
+
+        return byKey.keySet().stream()
+                .map(stored::get)
+                .toList();
+    }
+
+    public List<HistoryDto> getUserHistory(Long userId) {
+        return historyRepository.findDtosByUserId(userId);
     }
 
-    public List<HistoryDto> getUserHistory(String userEmail) {
-        User user = userService.findUserByEmail(userEmail);
-        List<History> historyList = historyRepository.findByUserOrderByScanDateDesc(user);
+    public HistoryPageDto getUserHistoryPage(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
 
-        return historyList.stream()
-                .map(h -> new HistoryDto(h.getId(), h.getBarcode(), h.getProductName(), h.getIsSafe(), h.getScanDate()))
-                .collect(Collectors.toList());
+        // Fetch one extra row to know whether there is a next page
+        Limit fetch = Limit.of(pageSize + 1);
+        List<HistoryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = historyRepository.findFirstPage(userId, fetch);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = historyRepository.findPageAfter(userId, LocalDateTime.parse(position[0]),
+                    Long.parseLong(position[1]), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new HistoryPageDto(rows, null);
+        }
+        List<HistoryDto> page = rows.subList(0, pageSize);
+        HistoryDto last = page.get(pageSize - 1);
+        // scan_date is not null since V7, so every page can be continued
+        return new HistoryPageDto(List.copyOf(page), encodeCursor(last.getScanDate(), last.getId()));
+    }
+
+    private static String encodeCursor(LocalDateTime scanDate, Long id) {
+        String position = scanDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor", e);
+        }
     }
 
-    public void deleteHistory(Long historyId, String userEmail) {
-        User user = userService.findUserByEmail(userEmail);
+    public void deleteHistory(Long historyId, Long userId) {
         History history = historyRepository.findById(historyId)
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("History not found: " + historyId));
 
         // Verify ownership
-        if (!history.getUser().getId().equals(user.getId())) {
+        if (!history.getUser().getId().equals(userId)) {
             throw new SecurityException("User does not own this history entry");
         }
 
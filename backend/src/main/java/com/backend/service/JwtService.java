@@ -1,9 +1,12 @@
 package com.backend.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,53 +16,50 @@ import java.util.Date;
 @Service
 public class JwtService {
 
-    @Value("${SECRET.KEY}")
-    private String SECRET_KEY;
+    // Key and parser are immutable and thread-safe, so they are built once instead of per call
+    private final SecretKey signKey;
+    private final JwtParser jwtParser;
+    private final Timer verifyTimer;
 
-    public String generateToken(String email, String role) {
+    public JwtService(@Value("${SECRET.KEY}") String secretKey, MeterRegistry meterRegistry) {
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parser().verifyWith(signKey).build();
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("JWT parse and signature verification")
+                .register(meterRegistry);
+    }
+
+    public String generateToken(Long userId, String email, String role, int tokenVersion) {
 
         return Jwts.builder()
                 .subject(email)
+                .claim("uid", userId)
                 .claim("role", role)
+                .claim("ver", tokenVersion)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 saat geçerli;
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
     /// TODO: Token süresine karar vermedik değiştirilecek.
 
-    public boolean validateToken(String token, String username) {
-        Date expirationDate = extractExpirationDate(token);
-        String tokenUserName = extractMail(token);
-        return expirationDate.after(new Date(System.currentTimeMillis())) && username.equals(tokenUserName);
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     * Throws a JwtException if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        // Strip "Bearer " prefix if present
+        String jwt = token != null && token.startsWith("Bearer ") ? token.substring(7) : token;
+        return verifyTimer.record(() -> jwtParser.parseSignedClaims(jwt).getPayload());
     }
 
-    private Date extractExpirationDate(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getExpiration();
+    public boolean validateToken(String token, String username) {
+        Claims claims = parseClaims(token);
+        return claims.getExpiration().after(new Date(System.currentTimeMillis()))
+                && username.equals(claims.getSubject());
     }
 
     public String extractMail(String token) {
-        // Strip "Bearer " prefix if present
-        if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7);
-        }
-
-        Claims claims = Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parseClaims(token).getSubject();
     }
 }
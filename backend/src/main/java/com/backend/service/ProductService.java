@@ -1,67 +1,265 @@
 package com.backend.service;
 
+import com.backend.cache.AllergenIndex;
+import com.backend.cache.BarcodeFilter;
+import com.backend.cache.ProductDetailCache;
+import com.backend.cache.SingleFlight;
+import com.backend.cache.UserAllergenMaskCache;
 import com.backend.dto.DangerousIngredientDto;
 import com.backend.dto.ProductDetailDto;
-import com.backend.model.Ingredient;
-import com.backend.model.Product;
-import com.backend.repository.DangerousIngredientsRepository;
+import com.backend.dto.ProductDetailRow;
+import com.backend.exception.InvalidRequestException;
+import com.backend.exception.ProductNotFoundException;
+import com.backend.repository.AllergyRepository;
 import com.backend.repository.ProductRepository;
-import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ProductService {
 
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private final ProductRepository productRepository;
-    private final DangerousIngredientsRepository dangerousIngredientsRepository;
+    private final ProductDetailCache productDetailCache;
+    private final BarcodeFilter barcodeFilter;
+    private final AllergenIndex allergenIndex;
+    private final UserAllergenMaskCache userAllergenMaskCache;
+    private final AllergyRepository allergyRepository;
+    private final int maxBatchSize;
+    private final Timer findByBarcodeTimer;
+    private final Timer findByBarcodesTimer;
+    private final SingleFlight<String, ProductDetailDto> detailLoads = new SingleFlight<>();
 
     public ProductService(ProductRepository productRepository,
-            DangerousIngredientsRepository dangerousIngredientsRepository) {
+            ProductDetailCache productDetailCache,
+            BarcodeFilter barcodeFilter,
+            AllergenIndex allergenIndex,
+            UserAllergenMaskCache userAllergenMaskCache,
+            AllergyRepository allergyRepository,
+            @Value("${product-batch.max-size:50}") int maxBatchSize,
+            MeterRegistry meterRegistry) {
         this.productRepository = productRepository;
-        this.dangerousIngredientsRepository = dangerousIngredientsRepository;
+        this.productDetailCache = productDetailCache;
+        this.barcodeFilter = barcodeFilter;
+        this.allergenIndex = allergenIndex;
+        this.userAllergenMaskCache = userAllergenMaskCache;
+        this.allergyRepository = allergyRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.findByBarcodeTimer = repositoryTimer(meterRegistry, "findDetailRowsByBarcode");
+        this.findByBarcodesTimer = repositoryTimer(meterRegistry, "findDetailRowsByBarcodeIn");
+        FunctionCounter.builder("product.lookup.coalesced", detailLoads, SingleFlight::sharedCount)
+                .description("Product lookups that waited for a concurrent load of the same barcode")
+                .register(meterRegistry);
+        Gauge.builder("product.lookup.in.flight", detailLoads, SingleFlight::inFlightCount)
+                .description("Barcodes currently being loaded from the repository")
+                .register(meterRegistry);
+    }
+
+    private static Timer repositoryTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("product.repository.query")
+                .description("Product repository calls made on cache misses")
+                .tag("query", query)
+                .register(meterRegistry);
     }
 
-    public ProductDetailDto getProductDetailsForUser(String barcode, String userEmail) {
+    public ProductDetailDto getProductDetailsForUser(String barcode, Long userId) {
+        // The cached detail is shared by all users; the allergen verdict is a single AND
+        // of the product's and the user's allergen masks
+        return withAllergenVerdict(sharedDetails(barcode), userAllergenMask(userId));
+    }
+
+    /**
+     * Entity tag of the detail {@link #getProductDetailsForUser(String, Long)} would return.
+     * It changes with the product, its ingredients, their danger levels and the user's allergen
+     * verdict, and is computed from cached data without building the response.
+     */
+    public String getProductDetailTag(String barcode, Long userId) {
+        ProductDetailDto details = sharedDetails(barcode);
+        long matched = details.getAllergenMask() & userAllergenMask(userId);
+
+        long hash = details.getContentHash();
+        hash = mix(hash, Long.toString(matched));
+        if (matched != 0L) {
+            for (String allergen : allergenIndex.allergyNames(matched)) {
+                hash = mix(hash, allergen);
+            }
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Resolves several barcodes at once. Every requested barcode is present in the result;
+     * barcodes that are not in the catalog map to null.
+     */
+    public Map<String, ProductDetailDto> getProductDetailsForUser(List<String> barcodes, Long userId) {
+        if (barcodes == null || barcodes.isEmpty()) {
+            throw new InvalidRequestException("barcodes must not be empty");
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        for (String barcode : barcodes) {
+            if (barcode == null || barcode.trim().isEmpty()) {
+                throw new InvalidRequestException("barcode must not be blank");
+            }
+            requested.add(barcode.trim());
+        }
+        if (requested.size() > maxBatchSize) {
+            throw new InvalidRequestException("at most " + maxBatchSize + " barcodes can be requested at once");
+        }
+
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String barcode : requested) {
+            if (barcodeFilter.mightExist(barcode)) {
+                candidates.add(barcode);
+            }
+        }
+        Map<String, ProductDetailDto> found = candidates.isEmpty()
+                ? Map.of()
+                : productDetailCache.getAll(candidates, this::loadAllProductDetails);
+        long userMask = userAllergenMask(userId);
+
+        Map<String, ProductDetailDto> result = new LinkedHashMap<>();
+        for (String barcode : requested) {
+            ProductDetailDto details = found.get(barcode);
+            result.put(barcode, details == null ? null : withAllergenVerdict(details, userMask));
+        }
+        return result;
+    }
+
+    private ProductDetailDto sharedDetails(String barcode) {
         if (barcode == null || barcode.trim().isEmpty()) {
-            throw new IllegalArgumentException("barcode must not be blank");
-        }
-
-        // userEmail is still required for authentication but we don't fetch user
-        // allergies
-        // Allergen detection is handled entirely by the frontend
-
-        Product product = productRepository.findWithIngredientsByBarcode(barcode)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found!"));
-
-        List<String> ingredientNames = product.getIngredients() == null
-                ? Collections.emptyList()
-                : product.getIngredients().stream()
-                        .filter(Objects::nonNull)
-                        .map(Ingredient::getName)
-                        .filter(Objects::nonNull)
-                        .map(String::trim)
-                        .filter(s -> !s.isEmpty())
-                        .distinct()
-                        .collect(Collectors.toList());
-
-        List<DangerousIngredientDto> dangerous = ingredientNames.isEmpty()
-                ? Collections.emptyList()
-                : dangerousIngredientsRepository.findByNameOfGradientIn(ingredientNames).stream()
-                        .filter(Objects::nonNull)
-                        .map(di -> new DangerousIngredientDto(di.getNameOfGradient(), di.getDangerLevel()))
-                        .sorted(Comparator.comparingInt(DangerousIngredientDto::getDangerLevel).reversed())
-                        .collect(Collectors.toList());
-
-        return new ProductDetailDto(
-                product.getBarcode(),
-                product.getProductName(),
-                ingredientNames,
-                dangerous);
+            throw new InvalidRequestException("barcode must not be blank");
+        }
+        if (!barcodeFilter.mightExist(barcode)) {
+            throw new ProductNotFoundException("Product not found!");
+        }
+
+        // Concurrent misses on one barcode share a single load, including its failure
+        ProductDetailDto details = productDetailCache.getIfPresent(barcode);
+        if (details == null) {
+            details = detailLoads.execute(barcode, () -> productDetailCache.get(barcode, this::loadProductDetails));
+        }
+        return details;
+    }
+
+    private long userAllergenMask(Long userId) {
+        if (userId == null) {
+            return 0L;
+        }
+        return userAllergenMaskCache.get(userId,
+                id -> allergenIndex.allergyMask(allergyRepository.findAllByUserId(id)));
+    }
+
+    private ProductDetailDto withAllergenVerdict(ProductDetailDto details, long userMask) {
+        long matched = details.getAllergenMask() & userMask;
+
+        ProductDetailDto view = new ProductDetailDto(
+                details.getBarcode(),
+                details.getProductName(),
+                details.getIngredients(),
+                details.getDangerousIngredients(),
+                details.getAllergenMask());
+        view.setDetectedAllergens(matched == 0L ? Collections.emptyList() : allergenIndex.allergyNames(matched));
+        view.setIsSafe(matched == 0L);
+        return view;
+    }
+
+    private ProductDetailDto loadProductDetails(String barcode) {
+        List<ProductDetailRow> rows = findByBarcodeTimer.record(() -> productRepository.findDetailRowsByBarcode(barcode));
+        if (rows.isEmpty()) {
+            barcodeFilter.recordMissing(barcode);
+            throw new ProductNotFoundException("Product not found!");
+        }
+        return toDetailDto(rows);
+    }
+
+    private Map<String, ProductDetailDto> loadAllProductDetails(Set<? extends String> barcodes) {
+        List<ProductDetailRow> rows = findByBarcodesTimer.record(
+                () -> productRepository.findDetailRowsByBarcodeIn(List.copyOf(barcodes)));
+
+        Map<String, List<ProductDetailRow>> rowsByBarcode = new LinkedHashMap<>();
+        for (ProductDetailRow row : rows) {
+            rowsByBarcode.computeIfAbsent(row.getBarcode(), b -> new ArrayList<>()).add(row);
+        }
+        Map<String, ProductDetailDto> details = new LinkedHashMap<>();
+        rowsByBarcode.forEach((barcode, productRows) -> details.put(barcode, toDetailDto(productRows)));
+        for (String barcode : barcodes) {
+            if (!details.containsKey(barcode)) {
+                barcodeFilter.recordMissing(barcode);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * Builds the shared detail from the projection rows of a single product.
+     */
+    private ProductDetailDto toDetailDto(List<ProductDetailRow> rows) {
+        Set<String> ingredientNames = new LinkedHashSet<>();
+        Map<String, DangerousIngredientDto> dangerous = new LinkedHashMap<>();
+        for (ProductDetailRow row : rows) {
+            if (row.getIngredientName() != null && !row.getIngredientName().trim().isEmpty()) {
+                ingredientNames.add(row.getIngredientName().trim());
+            }
+            if (row.getDangerLevel() != null) {
+                dangerous.putIfAbsent(row.getDangerousName(),
+                        new DangerousIngredientDto(row.getDangerousName(), row.getDangerLevel()));
+            }
+        }
+
+        List<String> ingredients = List.copyOf(ingredientNames);
+        List<DangerousIngredientDto> dangerousIngredients = dangerous.values().stream()
+                .sorted(Comparator.comparingInt(DangerousIngredientDto::getDangerLevel).reversed())
+                .toList();
+
+        ProductDetailRow first = rows.get(0);
+        ProductDetailDto details = new ProductDetailDto(
+                first.getBarcode(),
+                first.getProductName(),
+                ingredients,
+                dangerousIngredients,
+                allergenIndex.productMask(ingredients));
+        details.setContentHash(contentHash(details));
+        return details;
+    }
+
+    private static long contentHash(ProductDetailDto details) {
+        long hash = mix(FNV_OFFSET_BASIS, details.getBarcode());
+        hash = mix(hash, details.getProductName());
+        for (String ingredient : details.getIngredients()) {
+            hash = mix(hash, ingredient);
+        }
+        for (DangerousIngredientDto dangerous : details.getDangerousIngredients()) {
+            hash = mix(hash, dangerous.getName());
+            hash = mix(hash, Integer.toString(dangerous.getDangerLevel()));
+        }
+        return mix(hash, Long.toString(details.getAllergenMask()));
+    }
+
+    // 64-bit FNV-1a over the characters, with a separator so ("ab", "c") and ("a", "bc") differ
+    private static long mix(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= FNV_PRIME;
+            }
+        }
+        hash ^= 0x1F;
+        return hash * FNV_PRIME;
     }
 }
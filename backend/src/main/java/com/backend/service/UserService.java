@@ -4,6 +4,7 @@ import com.backend.dto.request.UserPostRequest;
 import com.backend.exception.MailWithUserAlreadyExistsException;
 import com.backend.model.User;
 import com.backend.repository.UserRepository;
+import com.backend.security.TokenVersionCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,10 +16,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            TokenVersionCache tokenVersionCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     public void saveUser(UserPostRequest userPostRequest) {
@@ -38,13 +42,20 @@ public class UserService {
     public void changePassword(long id, String newPassword) {
         User user = userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("User not found!"));
         user.setPassword(passwordEncoder.encode(newPassword));
+        // Revoke tokens issued with the old password
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        tokenVersionCache.invalidate(id);
     }
 
     protected User findUserByEmail(String email) {
         return userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found!"));
     }
 
+    protected User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
     protected void updateUser(User user) {
         userRepository.save(user);
     }
@@ -0,0 +1,12 @@
+-- Columns and indexes added after the ddl-auto schema captured in V1. They live here rather than
+-- in V1 because databases baselined at version 1 skip V1 but still run this script.
+
+-- JwtAuthFilter rejects tokens issued before the user's last password change
+alter table users add column token_version integer not null default 0;
+
+-- Idempotency key of offline scans, unique per user so replayed syncs are skipped
+alter table scan_history add column client_key varchar(64);
+alter table scan_history add constraint uk_scan_history_user_client_key unique (user_id, client_key);
+
+-- Keyset pagination of a user's history, newest first
+create index idx_scan_history_user_date_id on scan_history (user_id, scan_date desc, id);
@@ -0,0 +1,71 @@
+-- Schema as created by spring.jpa.hibernate.ddl-auto=update before Flyway was introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and never
+-- run this script, so anything added since then belongs in a later migration, not here.
+
+create table if not exists allergy (
+    allergy_id bigint not null auto_increment,
+    name varchar(255),
+    primary key (allergy_id)
+) engine=InnoDB;
+
+create table if not exists dangerous_ingredients (
+    danger_level integer not null,
+    name_of_gradient varchar(255) not null,
+    primary key (name_of_gradient)
+) engine=InnoDB;
+
+create table if not exists ingredient (
+    ingredient_id bigint not null auto_increment,
+    name varchar(255),
+    primary key (ingredient_id)
+) engine=InnoDB;
+
+create table if not exists product (
+    barcode varchar(255) not null,
+    product_name varchar(255),
+    primary key (barcode)
+) engine=InnoDB;
+
+create table if not exists product_ingredients (
+    product_barcode varchar(255) not null,
+    ingredient_id bigint not null,
+    constraint fk_product_ingredients_ingredient foreign key (ingredient_id) references ingredient (ingredient_id),
+    constraint fk_product_ingredients_product foreign key (product_barcode) references product (barcode)
+) engine=InnoDB;
+
+create table if not exists ingredient_product (
+    ingredient_ingredient_id bigint not null,
+    product_barcode varchar(255) not null,
+    constraint fk_ingredient_product_product foreign key (product_barcode) references product (barcode),
+    constraint fk_ingredient_product_ingredient foreign key (ingredient_ingredient_id) references ingredient (ingredient_id)
+) engine=InnoDB;
+
+create table if not exists users (
+    id bigint not null auto_increment,
+    email varchar(255),
+    name varchar(255),
+    password varchar(255),
+    role enum ('ROLE_ADMIN','ROLE_USER'),
+    surname varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists user_allergies (
+    user_id bigint not null,
+    allergy_id bigint not null,
+    primary key (user_id, allergy_id),
+    constraint fk_user_allergies_allergy foreign key (allergy_id) references allergy (allergy_id),
+    constraint fk_user_allergies_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table if not exists scan_history (
+    id bigint not null auto_increment,
+    barcode varchar(255),
+    is_safe bit,
+    product_name varchar(255),
+    scan_date datetime(6),
+    user_id bigint not null,
+    primary key (id),
+    constraint fk_scan_history_user foreign key (user_id) references users (id)
+) engine=InnoDB;
@@ -0,0 +1,67 @@
+-- One index per repository finder that is not already served by a primary key.
+-- Covered elsewhere:
+--   dangerous_ingredients.findByNameOfGradientIn  -> primary key (name_of_gradient)
+--   product.findByBarcode / findWithIngredientsByBarcode(In) -> primary key (barcode)
+--   users.findTokenVersionById                    -> primary key (id)
+--   user_allergies.findAllergyIdsByUserId         -> primary key (user_id, allergy_id)
+--   scan_history finders                          -> idx_scan_history_user_date_id, uk_scan_history_user_client_key
+
+-- The unique indexes below fail on duplicate values. Ingredients and allergies were created by
+-- name lookups that could race, so duplicates of those are merged into the lowest id first.
+-- Users cannot be merged automatically: before migrating a database baselined from ddl-auto,
+-- resolve any rows returned by
+--   select email, count(*) from users group by email having count(*) > 1;
+--   select username, count(*) from users group by username having count(*) > 1;
+
+create temporary table ingredient_duplicate as
+select i.ingredient_id as duplicate_id, k.keep_id
+from ingredient i
+join (select name, min(ingredient_id) as keep_id from ingredient where name is not null
+      group by name having count(*) > 1) k on k.name = i.name and i.ingredient_id <> k.keep_id;
+
+-- Drop links that would become repeats, then repoint the rest
+delete pi from product_ingredients pi
+join ingredient_duplicate d on d.duplicate_id = pi.ingredient_id
+join product_ingredients k on k.product_barcode = pi.product_barcode and k.ingredient_id = d.keep_id;
+update product_ingredients pi join ingredient_duplicate d on d.duplicate_id = pi.ingredient_id
+set pi.ingredient_id = d.keep_id;
+
+delete ip from ingredient_product ip
+join ingredient_duplicate d on d.duplicate_id = ip.ingredient_ingredient_id
+join ingredient_product k on k.product_barcode = ip.product_barcode and k.ingredient_ingredient_id = d.keep_id;
+update ingredient_product ip join ingredient_duplicate d on d.duplicate_id = ip.ingredient_ingredient_id
+set ip.ingredient_ingredient_id = d.keep_id;
+
+delete i from ingredient i join ingredient_duplicate d on d.duplicate_id = i.ingredient_id;
+drop temporary table ingredient_duplicate;
+
+create temporary table allergy_duplicate as
+select a.allergy_id as duplicate_id, k.keep_id
+from allergy a
+join (select name, min(allergy_id) as keep_id from allergy where name is not null
+      group by name having count(*) > 1) k on k.name = a.name and a.allergy_id <> k.keep_id;
+
+delete ua from user_allergies ua
+join allergy_duplicate d on d.duplicate_id = ua.allergy_id
+join user_allergies k on k.user_id = ua.user_id and k.allergy_id = d.keep_id;
+update user_allergies ua join allergy_duplicate d on d.duplicate_id = ua.allergy_id
+set ua.allergy_id = d.keep_id;
+
+delete a from allergy a join allergy_duplicate d on d.duplicate_id = a.allergy_id;
+drop temporary table allergy_duplicate;
+
+-- UserRepository.findByEmail runs on every authenticated request without a stateless token
+create unique index uk_users_email on users (email);
+create unique index uk_users_username on users (username);
+
+-- AllergyRepository.findByName
+create unique index uk_allergy_name on allergy (name);
+
+-- IngredientRepository.findByName
+create unique index uk_ingredient_name on ingredient (name);
+
+-- ProductRepository.findByProductName
+create index idx_product_product_name on product (product_name);
+
+-- Join fetch of product ingredients reads both columns from the index only
+create index idx_product_ingredients_product_ingredient on product_ingredients (product_barcode, ingredient_id);
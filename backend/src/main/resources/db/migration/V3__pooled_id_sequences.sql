@@ -0,0 +1,14 @@
+-- Sequence tables for pooled id allocation (MySQL has no sequences, Hibernate emulates them with tables).
+-- next_val starts one block above the current maximum id; the block size matches IdAllocation.BLOCK_SIZE.
+
+create table history_seq (next_val bigint) engine=InnoDB;
+insert into history_seq select coalesce(max(id), 0) + 50 from scan_history;
+
+create table users_seq (next_val bigint) engine=InnoDB;
+insert into users_seq select coalesce(max(id), 0) + 50 from users;
+
+create table ingredient_seq (next_val bigint) engine=InnoDB;
+insert into ingredient_seq select coalesce(max(ingredient_id), 0) + 50 from ingredient;
+
+create table allergy_seq (next_val bigint) engine=InnoDB;
+insert into allergy_seq select coalesce(max(allergy_id), 0) + 50 from allergy;
@@ -0,0 +1,22 @@
+-- Catalog tables get the created_at / updated_at columns declared on BaseEntity.
+-- Rows written with plain JDBC (dataset generator, bulk loaders) rely on the column defaults.
+
+alter table allergy
+    add column created_at datetime(6) not null default current_timestamp(6),
+    add column updated_at datetime(6) default current_timestamp(6) on update current_timestamp(6);
+
+alter table dangerous_ingredients
+    add column created_at datetime(6) not null default current_timestamp(6),
+    add column updated_at datetime(6) default current_timestamp(6) on update current_timestamp(6);
+
+alter table ingredient
+    add column created_at datetime(6) not null default current_timestamp(6),
+    add column updated_at datetime(6) default current_timestamp(6) on update current_timestamp(6);
+
+alter table product
+    add column created_at datetime(6) not null default current_timestamp(6),
+    add column updated_at datetime(6) default current_timestamp(6) on update current_timestamp(6);
+
+-- CatalogSnapshotService delta queries
+create index idx_product_updated_at on product (updated_at);
+create index idx_ingredient_updated_at on ingredient (updated_at);
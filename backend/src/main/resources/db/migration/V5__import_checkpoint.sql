@@ -0,0 +1,11 @@
+-- Chunks committed by ProductImporter. A chunk's products and its row here commit in one transaction,
+-- so a restarted import skips exactly the chunks that are already in the catalog.
+
+create table import_checkpoint (
+    job varchar(255) not null,
+    chunk bigint not null,
+    batch_size integer not null,
+    products integer not null,
+    completed_at datetime(6) not null default current_timestamp(6),
+    primary key (job, chunk)
+) engine=InnoDB;
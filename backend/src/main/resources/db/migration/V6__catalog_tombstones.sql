@@ -0,0 +1,31 @@
+-- Deletion log for catalog snapshot deltas: a delta replays the products and ingredients removed
+-- after the client's version. CatalogSnapshotService purges entries older than
+-- catalog-snapshot.max-delta-age; clients older than that receive a full snapshot instead.
+
+create table catalog_tombstone (
+    id bigint not null auto_increment,
+    kind varchar(16) not null,
+    item_key varchar(255) not null,
+    deleted_at datetime(6) not null default current_timestamp(6),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_catalog_tombstone_deleted_at on catalog_tombstone (deleted_at);
+
+create trigger trg_product_tombstone after delete on product for each row
+    insert into catalog_tombstone (kind, item_key) values ('product', old.barcode);
+
+create trigger trg_ingredient_tombstone after delete on ingredient for each row
+    insert into catalog_tombstone (kind, item_key) values ('ingredient', old.ingredient_id);
+
+-- A product's snapshot entry carries its ingredient links, so changing them has to move the
+-- product's updated_at. Loaders that only link brand new products set @catalog_bulk_load on
+-- their connection to skip the redundant touch.
+
+create trigger trg_product_ingredients_insert after insert on product_ingredients for each row
+    update product set updated_at = current_timestamp(6)
+    where barcode = new.product_barcode and @catalog_bulk_load is null;
+
+create trigger trg_product_ingredients_delete after delete on product_ingredients for each row
+    update product set updated_at = current_timestamp(6)
+    where barcode = old.product_barcode and @catalog_bulk_load is null;
@@ -0,0 +1,6 @@
+-- Keyset pages of a user's history continue after the last row's (scan_date, id), so every row
+-- needs a scan_date. The application always stamps one; rows from before that get the epoch,
+-- which keeps them at the end of the newest-first order where MySQL sorted the nulls.
+
+update scan_history set scan_date = '1970-01-01 00:00:00' where scan_date is null;
+alter table scan_history modify scan_date datetime(6) not null;
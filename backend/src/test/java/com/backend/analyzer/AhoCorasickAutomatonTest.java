@@ -0,0 +1,58 @@
+package com.backend.analyzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickAutomatonTest {
+
+    @Test
+    void reportsOverlappingMatchesThroughFailureLinks() {
+        List<String> patterns = List.of("he", "she", "his", "hers");
+
+        assertThat(matches(patterns, "ushers")).containsExactlyInAnyOrder("she@1-4", "he@2-4", "hers@2-6");
+        assertThat(AhoCorasickAutomaton.build(patterns).stateCount()).isEqualTo(10);
+    }
+
+    @Test
+    void reportsPatternsEndingInsideALongerPartialMatch() {
+        assertThat(matches(List.of("abcd", "bc", "c"), "abce")).containsExactlyInAnyOrder("bc@1-3", "c@2-3");
+    }
+
+    @Test
+    void fallsBackToTheLongestSuffixAfterAMismatch() {
+        assertThat(matches(List.of("aab"), "aaab")).containsExactly("aab@1-4");
+        assertThat(matches(List.of("abab"), "abababx")).containsExactly("abab@0-4", "abab@2-6");
+    }
+
+    @Test
+    void restartsOnCharactersOutsideThePatterns() {
+        assertThat(matches(List.of("ab"), "a-b a b ab")).containsExactly("ab@8-10");
+    }
+
+    @Test
+    void matchesCaseInsensitivelyIncludingNonAsciiLetters() {
+        assertThat(matches(List.of("süt", "Egg"), "Yağsız SÜT tozu, EGG"))
+                .containsExactlyInAnyOrder("süt@7-10", "Egg@17-20");
+    }
+
+    @Test
+    void reportsEveryIdOfARepeatedPatternAndSkipsEmptyOnes() {
+        AhoCorasickAutomaton automaton = AhoCorasickAutomaton.build(List.of("milk", "", "milk"));
+        List<Integer> ids = new ArrayList<>();
+        automaton.scan("milk", (patternId, start, end) -> ids.add(patternId));
+
+        assertThat(ids).containsExactlyInAnyOrder(0, 2);
+        assertThat(matches(List.of(), "anything")).isEmpty();
+    }
+
+    private static List<String> matches(List<String> patterns, String text) {
+        List<String> found = new ArrayList<>();
+        AhoCorasickAutomaton.build(patterns)
+                .scan(text, (patternId, start, end) -> found.add(patterns.get(patternId) + "@" + start + "-" + end));
+        return found;
+    }
+}
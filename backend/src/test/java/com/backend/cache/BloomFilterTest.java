@@ -0,0 +1,90 @@
+package com.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnInsertedValue() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            values.add(String.format("869%010d", i * 7919L));
+        }
+        // Every length up to two murmur3 blocks, plus multi-byte characters
+        for (int length = 0; length <= 40; length++) {
+            values.add("x".repeat(length));
+            values.add("ç".repeat(length));
+        }
+        values.forEach(filter::put);
+
+        for (String value : values) {
+            assertThat(filter.mightContain(value)).as("contains %s", value).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(values.size());
+    }
+
+    @Test
+    void keepsNoFalseNegativesUnderConcurrentInserts() throws Exception {
+        BloomFilter filter = new BloomFilter(200_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = thread; i < 200_000; i += 4) {
+                        filter.put("barcode-" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(filter.mightContain("barcode-" + i)).as("contains barcode-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void staysCloseToTheTargetFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("present-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void stillFindsEverythingWhenOverfilled() {
+        BloomFilter filter = new BloomFilter(1, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put(Integer.toString(i));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain(Integer.toString(i))).isTrue();
+        }
+        assertThat(filter.expectedFalsePositiveRate()).isGreaterThan(0.5);
+    }
+}
@@ -0,0 +1,102 @@
+package com.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @Timeout(10)
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(singleFlight, "869", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "product";
+        });
+        awaitSharedCount(singleFlight, CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("product");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    @Timeout(10)
+    void concurrentCallersShareTheFailure() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(singleFlight, "869", () -> {
+            await(release);
+            throw failure;
+        });
+        awaitSharedCount(singleFlight, CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).cause().isSameAs(failure);
+        }
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void loadsAgainOnceTheFlightHasLanded() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(singleFlight.execute("a", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.execute("a", loads::incrementAndGet)).isEqualTo(2);
+        assertThat(singleFlight.execute("b", loads::incrementAndGet)).isEqualTo(3);
+        assertThat(singleFlight.sharedCount()).isZero();
+    }
+
+    private static <V> List<Future<V>> callConcurrently(SingleFlight<String, V> singleFlight, String key,
+            Supplier<V> supplier) {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<V>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(key, supplier)));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    // Waiters count themselves before blocking, so the load is only released once all have joined it
+    private static void awaitSharedCount(SingleFlight<?, ?> singleFlight, long expected) throws InterruptedException {
+        while (singleFlight.sharedCount() < expected) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.backend.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvProductDumpReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mapsColumnsByHeaderName() throws IOException {
+        List<ImportedProduct> products = read(',', true,
+                "ingredients,extra,code,name\n"
+                        + "\"sugar, salt\",x,123,Chocolate\n");
+
+        assertThat(products).containsExactly(
+                new ImportedProduct("123", "Chocolate", List.of("sugar", "salt")));
+    }
+
+    @Test
+    void keepsDelimitersLineBreaksAndDoubledQuotesInsideQuotes() throws IOException {
+        List<ImportedProduct> products = read(',', true,
+                "code,name,ingredients\n"
+                        + "1,\"Bar, \"\"dark\"\"\",\"cocoa,\nsugar\"\n"
+                        + "2,\"\",\n");
+
+        assertThat(products).containsExactly(
+                new ImportedProduct("1", "Bar, \"dark\"", List.of("cocoa", "sugar")),
+                new ImportedProduct("2", null, List.of()));
+    }
+
+    @Test
+    void treatsQuotesInsideAFieldAsLiteral() throws IOException {
+        List<ImportedProduct> products = read(',', true,
+                "code,name,ingredients\n"
+                        + "1,12\" pizza,\"flour\"\n");
+
+        assertThat(products).containsExactly(
+                new ImportedProduct("1", "12\" pizza", List.of("flour")));
+    }
+
+    @Test
+    void keepsQuotesLiteralWhenQuotingIsOff() throws IOException {
+        List<ImportedProduct> products = read('\t', false,
+                "code\tname\tingredients\n"
+                        + "1\t\"Best\" crisps\t\"potatoes, oil\n");
+
+        assertThat(products).containsExactly(
+                new ImportedProduct("1", "\"Best\" crisps", List.of("\"potatoes", "oil")));
+    }
+
+    @Test
+    void acceptsCrLfAndCrLineEndingsAndAMissingFinalLineBreak() throws IOException {
+        List<ImportedProduct> products = read(',', true,
+                "code,name,ingredients\r\n1,A,x\r2,B,y\r\n3,C,z");
+
+        assertThat(products).containsExactly(
+                new ImportedProduct("1", "A", List.of("x")),
+                new ImportedProduct("2", "B", List.of("y")),
+                new ImportedProduct("3", "C", List.of("z")));
+    }
+
+    @Test
+    void returnsRowsWithoutABarcodeAndShortRows() throws IOException {
+        List<ImportedProduct> products = read(',', true,
+                "code,name,ingredients\n"
+                        + "  ,Nameless,salt\n"
+                        + "4\n"
+                        + "\n");
+
+        assertThat(products).containsExactly(
+                new ImportedProduct(null, "Nameless", List.of("salt")),
+                new ImportedProduct("4", null, List.of()),
+                new ImportedProduct(null, null, List.of()));
+    }
+
+    @Test
+    void readsGzipCompressedDumps() throws IOException {
+        Path file = dir.resolve("dump.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write("code,name,ingredients\n1,Ayran,\"yoğurt, su, tuz\"\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (CsvProductDumpReader reader = new CsvProductDumpReader(file, ',', true, "code", "name", "ingredients")) {
+            assertThat(reader.next()).isEqualTo(new ImportedProduct("1", "Ayran", List.of("yoğurt", "su", "tuz")));
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void rejectsMissingColumnsAndEmptyFiles() throws IOException {
+        Path file = write("code,name\n1,A\n");
+        assertThatThrownBy(() -> new CsvProductDumpReader(file, ',', true, "code", "name", "ingredients"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ingredients");
+
+        Path empty = write("");
+        assertThatThrownBy(() -> new CsvProductDumpReader(empty, ',', true, "code", "name", "ingredients"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("empty");
+    }
+
+    private List<ImportedProduct> read(char delimiter, boolean quoting, String content) throws IOException {
+        List<ImportedProduct> products = new ArrayList<>();
+        try (CsvProductDumpReader reader = new CsvProductDumpReader(write(content), delimiter, quoting,
+                "code", "name", "ingredients")) {
+            ImportedProduct product;
+            while ((product = reader.next()) != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(dir, "dump", ".csv"), content);
+    }
+}
@@ -0,0 +1,115 @@
+package com.backend.ingest;
+
+import com.backend.model.IdAllocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledIdAllocatorTest {
+
+    private static final int BLOCK = IdAllocation.BLOCK_SIZE;
+
+    // V3 starts a sequence one block above the largest id, so an empty table starts at 50
+    private final SequenceTable sequence = new SequenceTable(BLOCK);
+    private final PooledIdAllocator allocator = new PooledIdAllocator(sequence, sequence);
+
+    @Test
+    void reservesWholeBlocksEndingAtTheSequenceValue() {
+        assertThat(allocator.allocate("history_seq", 1)).isEqualTo(1);
+        assertThat(sequence.nextVal).isEqualTo(2L * BLOCK);
+
+        assertThat(allocator.allocate("history_seq", 0)).isEqualTo(BLOCK + 1);
+        assertThat(sequence.nextVal).isEqualTo(3L * BLOCK);
+    }
+
+    @Test
+    void roundsCountsUpToTheNextBlockBoundary() {
+        assertThat(allocator.allocate("history_seq", BLOCK)).isEqualTo(1);
+        assertThat(sequence.nextVal).isEqualTo(2L * BLOCK);
+
+        assertThat(allocator.allocate("history_seq", BLOCK + 1)).isEqualTo(BLOCK + 1);
+        assertThat(sequence.nextVal).isEqualTo(4L * BLOCK);
+
+        assertThat(allocator.allocate("history_seq", 2L * BLOCK - 1)).isEqualTo(3L * BLOCK + 1);
+        assertThat(sequence.nextVal).isEqualTo(6L * BLOCK);
+    }
+
+    @Test
+    void neverHandsOutAnIdTwiceAlongsideHibernate() {
+        List<long[]> ranges = new ArrayList<>();
+        long[] counts = { 1, 1000, 49, 50, 51, 7 };
+        for (long count : counts) {
+            long first = allocator.allocate("ingredient_seq", count);
+            long blocks = (count + BLOCK - 1) / BLOCK;
+            ranges.add(new long[] { first, first + Math.max(1, blocks) * BLOCK - 1 });
+
+            // Hibernate's pooled optimizer owns next_val - BLOCK + 1 .. next_val of the value it reads
+            long hibernateValue = sequence.nextVal;
+            sequence.nextVal += BLOCK;
+            ranges.add(new long[] { hibernateValue - BLOCK + 1, hibernateValue });
+        }
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        assertThat(ranges.get(0)[0]).isEqualTo(1);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i)[0]).as("range %d starts after the previous one", i)
+                    .isEqualTo(ranges.get(i - 1)[1] + 1);
+        }
+    }
+
+    @Test
+    void allocatesInItsOwnTransaction() {
+        allocator.allocate("users_seq", 1);
+
+        assertThat(sequence.propagation).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        assertThat(sequence.lockedRead).isTrue();
+    }
+
+    /**
+     * One sequence row, answering the allocator's select and update.
+     */
+    private static class SequenceTable extends JdbcTemplate implements PlatformTransactionManager {
+
+        long nextVal;
+        int propagation = -1;
+        boolean lockedRead;
+
+        SequenceTable(long nextVal) {
+            this.nextVal = nextVal;
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            lockedRead = sql.endsWith(" for update");
+            return requiredType.cast(nextVal);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            nextVal = (Long) args[0];
+            return 1;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            propagation = definition.getPropagationBehavior();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.backend.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductDumpReaderTest {
+
+    @Test
+    void splitsOnCommasAndSemicolonsOutsideParentheses() {
+        assertThat(ProductDumpReader.splitIngredients("Sugar, palm oil; milk powder (skimmed, whole), salt"))
+                .containsExactly("Sugar", "palm oil", "milk powder (skimmed, whole)", "salt");
+        assertThat(ProductDumpReader.splitIngredients("emulsifier [lecithins; E476], salt"))
+                .containsExactly("emulsifier [lecithins; E476]", "salt");
+    }
+
+    @Test
+    void dropsPercentagesAndMarkup() {
+        assertThat(ProductDumpReader.splitIngredients("Sugar 45%, _hazelnuts_ 13.5 %, *milk*, salt."))
+                .containsExactly("Sugar", "hazelnuts", "milk", "salt");
+    }
+
+    @Test
+    void dropsSeparatorsAndBracketsLeftByPercentages() {
+        assertThat(ProductDumpReader.splitIngredients("cocoa (fat-reduced, 10%), hazelnuts (13%), milk [5.5%]"))
+                .containsExactly("cocoa (fat-reduced)", "hazelnuts", "milk");
+        assertThat(ProductDumpReader.splitIngredients("flour (12%, wheat)"))
+                .containsExactly("flour (wheat)");
+    }
+
+    @Test
+    void skipsEmptyItemsAndTrailingPunctuation() {
+        assertThat(ProductDumpReader.splitIngredients("Ingredients:, sugar,, ; 20%, water."))
+                .containsExactly("Ingredients", "sugar", "water");
+        assertThat(ProductDumpReader.splitIngredients(null)).isEmpty();
+        assertThat(ProductDumpReader.splitIngredients("  ")).isEmpty();
+    }
+
+    @Test
+    void closesUnbalancedParenthesesAtTheEnd() {
+        assertThat(ProductDumpReader.splitIngredients("sugar, cocoa (fat-reduced, salt"))
+                .containsExactly("sugar", "cocoa (fat-reduced, salt");
+    }
+
+    @Test
+    void truncatesLongValuesToTheColumnLength() {
+        String longName = "a".repeat(ProductDumpReader.MAX_COLUMN_LENGTH + 10);
+
+        assertThat(ProductDumpReader.splitIngredients(longName + ", b"))
+                .containsExactly("a".repeat(ProductDumpReader.MAX_COLUMN_LENGTH), "b");
+        assertThat(ProductDumpReader.clean("  " + longName + " "))
+                .isEqualTo("a".repeat(ProductDumpReader.MAX_COLUMN_LENGTH));
+        assertThat(ProductDumpReader.clean("   ")).isNull();
+    }
+}
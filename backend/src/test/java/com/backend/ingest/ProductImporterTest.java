@@ -0,0 +1,273 @@
+package com.backend.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the importer against an in-memory stand-in for the tables it writes, one worker thread so
+ * chunks commit in order.
+ */
+class ProductImporterTest {
+
+    private static final String HEADER = "code,product_name,ingredients_text\n";
+
+    @TempDir
+    Path dir;
+
+    private final FakeDatabase database = new FakeDatabase();
+    private final CountingIdAllocator idAllocator = new CountingIdAllocator(database);
+
+    @Test
+    void writesEveryChunkWithItsCheckpoint() throws Exception {
+        Path dump = dump("1,Chocolate,\"Sugar, cocoa\"\n2,Milk,milk\n3,Cocoa,COCOA\n");
+
+        importer(dump, 2).run();
+
+        assertThat(database.products).containsOnlyKeys("1", "2", "3");
+        assertThat(database.ingredients.values()).containsExactlyInAnyOrder("Sugar", "cocoa", "milk");
+        assertThat(database.links.get("3")).containsExactly(database.links.get("1").get(1));
+        assertThat(database.checkpoints).containsOnlyKeys(0L, 1L);
+        assertThat(database.checkpoints.get(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void skipsBarcodesAlreadyInTheCatalogOrRepeatedInTheDump() throws Exception {
+        database.products.put("1", "Existing");
+        Path dump = dump("1,Chocolate,sugar\n2,Milk,milk\n2,Milk again,milk\n,No barcode,salt\n");
+
+        importer(dump, 10).run();
+
+        assertThat(database.products).containsEntry("1", "Existing").containsEntry("2", "Milk").hasSize(2);
+        assertThat(database.links).containsOnlyKeys("2");
+        assertThat(database.checkpoints).containsEntry(0L, 1);
+    }
+
+    @Test
+    void retriesAChunkWhenAParallelChunkCommitsOneOfItsBarcodes() throws Exception {
+        Path dump = dump("1,Chocolate,sugar\n2,Milk,milk\n");
+        database.racingBarcode = "2";
+
+        importer(dump, 10).run();
+
+        assertThat(database.products).containsOnlyKeys("1", "2");
+        assertThat(database.products).containsEntry("2", "Raced");
+        assertThat(database.links).containsOnlyKeys("1");
+        assertThat(database.checkpoints).containsEntry(0L, 1);
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() throws Exception {
+        Path dump = dump("1,A,sugar\n2,B,salt\n3,C,sugar\n4,D,water\n5,E,milk\n");
+        database.failCheckpoint = 1L;
+
+        assertThatThrownBy(() -> importer(dump, 2).run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("run it again to resume");
+        assertThat(database.products).containsOnlyKeys("1", "2");
+        assertThat(database.checkpoints).containsOnlyKeys(0L);
+
+        // Rows of the committed chunk deleted since then stay deleted: the chunk is not read again
+        database.products.remove("1");
+        importer(dump, 2).run();
+
+        assertThat(database.products).containsOnlyKeys("2", "3", "4", "5");
+        assertThat(database.checkpoints).containsOnlyKeys(0L, 1L, 2L);
+        assertThat(database.ingredients.values()).containsExactlyInAnyOrder("sugar", "salt", "water", "milk");
+    }
+
+    @Test
+    void refusesToResumeWithAnotherBatchSize() throws Exception {
+        Path dump = dump("1,A,sugar\n2,B,salt\n3,C,sugar\n");
+        importer(dump, 2).run();
+
+        assertThatThrownBy(() -> importer(dump, 3).run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("batch-size");
+    }
+
+    private ProductImporter importer(Path dump, int batchSize) {
+        return new ProductImporter(database, database, idAllocator, new ObjectMapper(),
+                dump.toString(), "auto", "test", 1, batchSize, Duration.ofMinutes(1), ',', true,
+                "code", "product_name", "ingredients_text");
+    }
+
+    private Path dump(String rows) throws IOException {
+        return Files.writeString(dir.resolve("products.csv"), HEADER + rows);
+    }
+
+    private static class CountingIdAllocator extends PooledIdAllocator {
+
+        private long next = 1;
+
+        CountingIdAllocator(FakeDatabase database) {
+            super(database, database);
+        }
+
+        @Override
+        public long allocate(String sequenceTable, long count) {
+            long first = next;
+            next += count;
+            return first;
+        }
+    }
+
+    /**
+     * Answers the importer's statements from maps; a rollback restores the maps as they were when
+     * the transaction began.
+     */
+    private static class FakeDatabase extends JdbcTemplate implements PlatformTransactionManager {
+
+        final Map<String, String> products = new LinkedHashMap<>();
+        final Map<Long, String> ingredients = new LinkedHashMap<>();
+        final Map<String, List<Long>> links = new LinkedHashMap<>();
+        final Map<Long, Integer> checkpoints = new LinkedHashMap<>();
+        final Map<Long, Integer> checkpointBatchSizes = new HashMap<>();
+
+        String racingBarcode;
+        Long failCheckpoint;
+
+        private Map<String, String> savedProducts;
+        private Map<String, List<Long>> savedLinks;
+        private Map<Long, Integer> savedCheckpoints;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            if (sql.startsWith("select distinct batch_size")) {
+                return (List<T>) new ArrayList<>(checkpointBatchSizes.values().stream().distinct().toList());
+            }
+            if (sql.startsWith("select chunk")) {
+                return (List<T>) new ArrayList<>(checkpoints.keySet());
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+            assertThat(sql).isEqualTo("select ingredient_id, name from ingredient");
+            for (Map.Entry<Long, String> ingredient : ingredients.entrySet()) {
+                ResultSet row = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, (proxy, method, args) -> switch (method.getName()) {
+                            case "getLong" -> ingredient.getKey();
+                            case "getString" -> ingredient.getValue();
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        });
+                try {
+                    rch.processRow(row);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        // The existence check of a chunk; returning every barcode is equivalent for the importer
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+            return (List<T>) new ArrayList<>(products.keySet());
+        }
+
+        @Override
+        public void execute(String sql) {
+            assertThat(sql).startsWith("set @catalog_bulk_load");
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            for (Object[] row : batchArgs) {
+                if (sql.startsWith("insert into ingredient ")) {
+                    ingredients.put((Long) row[0], (String) row[1]);
+                } else if (sql.startsWith("insert into product_ingredients ")) {
+                    links.computeIfAbsent((String) row[0], barcode -> new ArrayList<>()).add((Long) row[1]);
+                } else {
+                    throw new UnsupportedOperationException(sql);
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("insert ignore into product ")) {
+                if (racingBarcode != null) {
+                    products.put(racingBarcode, "Raced");
+                    racingBarcode = null;
+                }
+                int inserted = 0;
+                for (int i = 0; i < args.length; i += 2) {
+                    if (products.putIfAbsent((String) args[i], (String) args[i + 1]) == null) {
+                        inserted++;
+                    }
+                }
+                return inserted;
+            }
+            if (sql.startsWith("insert into import_checkpoint ")) {
+                long chunk = (Long) args[1];
+                if (failCheckpoint != null && failCheckpoint == chunk) {
+                    failCheckpoint = null;
+                    throw new DataAccessResourceFailureException("Connection lost");
+                }
+                checkpoints.put(chunk, (Integer) args[3]);
+                checkpointBatchSizes.put(chunk, (Integer) args[2]);
+                return 1;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            savedProducts = new LinkedHashMap<>(products);
+            savedLinks = new LinkedHashMap<>(links);
+            savedCheckpoints = new LinkedHashMap<>(checkpoints);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            if (status.isRollbackOnly()) {
+                rollback(status);
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            // A raced barcode was committed by another transaction and survives the rollback
+            Map<String, String> raced = new HashMap<>(products);
+            raced.keySet().removeAll(savedProducts.keySet());
+            raced.values().removeIf(name -> !"Raced".equals(name));
+            products.clear();
+            products.putAll(savedProducts);
+            products.putAll(raced);
+            links.clear();
+            links.putAll(savedLinks);
+            checkpoints.clear();
+            checkpoints.putAll(savedCheckpoints);
+        }
+    }
+}
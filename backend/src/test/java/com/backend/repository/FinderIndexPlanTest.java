@@ -0,0 +1,193 @@
+package com.backend.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN for the SQL behind every repository finder against the migrated MySQL schema
+ * and fails when a finder would scan a whole table or sort in memory. Repository finders are
+ * invoked and the SQL Hibernate generates for them is captured; the JdbcTemplate queries of
+ * the catalog snapshot are listed verbatim.
+ * Needs a seeded MySQL database: mvn test -Dperf=true
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.backend.repository.FinderIndexPlanTest$CapturedSql")
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class FinderIndexPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AllergyRepository allergyRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private DangerousIngredientsRepository dangerousIngredientsRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private HistoryRepository historyRepository;
+
+    @Value("${admin.email}")
+    private String adminEmail;
+
+    @Value("${admin.username}")
+    private String adminUsername;
+
+    @Test
+    void userFindersUseIndexes() {
+        Long userId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+
+        assertIndexed(sqlOf(() -> userRepository.findByEmail(adminEmail)), "users", "uk_users_email", adminEmail);
+        assertIndexed(sqlOf(() -> userRepository.findByUsername(adminUsername)), "users", "uk_users_username",
+                adminUsername);
+        assertIndexed(sqlOf(() -> userRepository.findTokenVersionById(userId)), "users", "PRIMARY", userId);
+    }
+
+    @Test
+    void allergyFindersUseIndexes() {
+        Long userId = jdbcTemplate.queryForObject("select min(user_id) from user_allergies", Long.class);
+
+        assertIndexed(sqlOf(() -> allergyRepository.findByName("Gluten")), "allergy", "uk_allergy_name", "Gluten");
+        assertIndexed(sqlOf(() -> allergyRepository.findAllByUserId(userId)), "user_allergies", "PRIMARY", userId);
+        assertIndexed(sqlOf(() -> allergyRepository.findAllergyIdsByUserId(userId)), "user_allergies", "PRIMARY",
+                userId);
+    }
+
+    @Test
+    void catalogFindersUseIndexes() {
+        String barcode = jdbcTemplate.queryForObject("select min(barcode) from product", String.class);
+        String productName = jdbcTemplate.queryForObject("select product_name from product where barcode = ?",
+                String.class, barcode);
+        String ingredientName = jdbcTemplate.queryForObject("select min(name) from ingredient", String.class);
+        List<String> dangerous = jdbcTemplate.queryForList(
+                "select name_of_gradient from dangerous_ingredients order by name_of_gradient limit 2", String.class);
+
+        assertIndexed(sqlOf(() -> ingredientRepository.findByName(ingredientName)), "ingredient",
+                "uk_ingredient_name", ingredientName);
+        assertIndexed(sqlOf(() -> dangerousIngredientsRepository.findByNameOfGradientIn(dangerous)),
+                "dangerous_ingredients", "PRIMARY", dangerous.get(0), dangerous.get(1));
+        assertIndexed(sqlOf(() -> productRepository.findByBarcode(barcode)), "product", "PRIMARY", barcode);
+        assertIndexed(sqlOf(() -> productRepository.findByProductName(productName)), "product",
+                "idx_product_product_name", productName);
+
+        String detailRows = sqlOf(() -> productRepository.findDetailRowsByBarcode(barcode));
+        assertIndexed(detailRows, "product_ingredients", null, barcode);
+        assertIndexed(detailRows, "ingredient", "PRIMARY", barcode);
+        assertIndexed(detailRows, "dangerous_ingredients", "PRIMARY", barcode);
+        assertIndexed(sqlOf(() -> productRepository.findDetailRowsByBarcodeIn(List.of(barcode, productName))),
+                "product_ingredients", null, barcode, productName);
+    }
+
+    @Test
+    void catalogDeltaFindersUseIndexes() {
+        Timestamp recent = Timestamp.valueOf(LocalDateTime.now().minusMinutes(1));
+
+        assertIndexed("select barcode from product where updated_at > ?", "product",
+                "idx_product_updated_at", recent);
+        assertIndexed("select ingredient_id, name from ingredient where updated_at > ? order by ingredient_id",
+                "ingredient", "idx_ingredient_updated_at", recent);
+        assertIndexed("select kind, item_key from catalog_tombstone where deleted_at > ?", "catalog_tombstone",
+                "idx_catalog_tombstone_deleted_at", recent);
+    }
+
+    @Test
+    void historyFindersUseIndexes() {
+        Long userId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertIndexed(sqlOf(() -> historyRepository.findDtosByUserId(userId)), "scan_history",
+                "idx_scan_history_user_date_id", userId);
+        assertIndexed(sqlOf(() -> historyRepository.findFirstPage(userId, Limit.of(20))), "scan_history",
+                "idx_scan_history_user_date_id", userId, 20);
+        assertIndexed(sqlOf(() -> historyRepository.findPageAfter(userId, now, Long.MAX_VALUE, Limit.of(20))),
+                "scan_history", "idx_scan_history_user_date_id", userId, now, now, Long.MAX_VALUE, 20);
+        assertIndexed(sqlOf(() -> historyRepository.findDtosByUserIdAndClientKeyIn(userId, List.of("a", "b"))),
+                "scan_history", "uk_scan_history_user_client_key", userId, "a", "b");
+    }
+
+    /**
+     * Runs a finder with the second-level caches empty and returns the first statement it sent.
+     */
+    private String sqlOf(Runnable finder) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        CapturedSql.STATEMENTS.clear();
+        finder.run();
+        assertThat(CapturedSql.STATEMENTS).as("statements sent by the finder").isNotEmpty();
+        return CapturedSql.STATEMENTS.get(0);
+    }
+
+    /**
+     * Asserts that the plan row for the table uses an index, and the expected one if given.
+     * Arguments are bound in placeholder order; extra ones are dropped in case the dialect
+     * inlines a limit.
+     */
+    private void assertIndexed(String sql, String table, String expectedKey, Object... args) {
+        String alias = aliasOf(sql, table);
+        Object[] bound = Arrays.copyOf(args, (int) Math.min(args.length, sql.chars().filter(c -> c == '?').count()));
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain " + sql, bound);
+        Map<String, Object> row = plan.stream()
+                .filter(r -> alias.equals(r.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + " in " + plan + " of " + sql));
+
+        assertThat(row.get("type")).as("access type for %s in %s", table, plan).isNotEqualTo("ALL");
+        assertThat(row.get("key")).as("index for %s in %s", table, plan).isNotNull();
+        if (expectedKey != null) {
+            assertThat(row.get("key")).as("index for %s in %s", table, plan).isEqualTo(expectedKey);
+        }
+        assertThat(String.valueOf(row.get("Extra"))).as("extra for %s in %s", table, plan)
+                .doesNotContain("Using filesort");
+    }
+
+    // Hibernate aliases every table (product p1_0); EXPLAIN reports the alias
+    private static String aliasOf(String sql, String table) {
+        Matcher matcher = Pattern.compile("\\b(?:from|join)\\s+" + table + "\\s+(?!on\\b|where\\b)(\\w+)",
+                Pattern.CASE_INSENSITIVE).matcher(sql);
+        return matcher.find() ? matcher.group(1) : table;
+    }
+
+    /**
+     * Records the SQL Hibernate sends, registered through hibernate.session_factory.statement_inspector.
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
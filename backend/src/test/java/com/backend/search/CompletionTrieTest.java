@@ -0,0 +1,98 @@
+package com.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionTrieTest {
+
+    @Test
+    void completesFromTheStartOfEveryWord() {
+        CompletionTrie trie = trie(20,
+                "Skimmed Milk Powder", 5L,
+                "Milk", 50L,
+                "Almond-milk drink", 10L,
+                "Buttermilk", 100L,
+                "Mustard", 1L);
+
+        assertThat(trie.complete("milk", 10)).containsExactly("Milk", "Almond-milk drink", "Skimmed Milk Powder");
+        assertThat(trie.complete("mi", 10)).containsExactly("Milk", "Almond-milk drink", "Skimmed Milk Powder");
+        assertThat(trie.complete("milk pow", 10)).containsExactly("Skimmed Milk Powder");
+        assertThat(trie.complete("m", 10))
+                .containsExactly("Milk", "Almond-milk drink", "Skimmed Milk Powder", "Mustard");
+        assertThat(trie.complete("ilk", 10)).isEmpty();
+        assertThat(trie.complete("milky", 10)).isEmpty();
+    }
+
+    @Test
+    void foldsCaseAndDiacriticsOfNamesAndPrefixes() {
+        CompletionTrie trie = trie(20, "Çikolatalı Süt", 3L, "Şeker", 2L);
+
+        assertThat(trie.complete("CIKOLATALI", 10)).containsExactly("Çikolatalı Süt");
+        assertThat(trie.complete("  sut ", 10)).containsExactly("Çikolatalı Süt");
+        assertThat(trie.complete("şek", 10)).containsExactly("Şeker");
+    }
+
+    @Test
+    void ranksByWeightThenShorterNameThenName() {
+        CompletionTrie trie = trie(20,
+                "Soy lecithin", 7L,
+                "Soy", 7L,
+                "Soy sauce", 9L,
+                "Soya", 7L,
+                "Soy beans", 7L);
+
+        assertThat(trie.complete("soy", 10))
+                .containsExactly("Soy sauce", "Soy", "Soya", "Soy beans", "Soy lecithin");
+        assertThat(trie.complete("soy", 2)).containsExactly("Soy sauce", "Soy");
+    }
+
+    @Test
+    void listsANameOnceWhenSeveralOfItsWordsMatch() {
+        CompletionTrie trie = trie(20, "Salt and salted butter", 1L, "Sea salt", 2L);
+
+        assertThat(trie.complete("salt", 10)).containsExactly("Sea salt", "Salt and salted butter");
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    void precomputedRankingsMatchTheOnesSortedPerLookup() {
+        List<String> names = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            names.add("Flavour " + i);
+            weights.add((long) (i * 37 % 101));
+        }
+        // Wide ranges get their best entries precomputed only up to maxResults
+        CompletionTrie precomputed = new CompletionTrie(names, weights, 5);
+        CompletionTrie sorted = new CompletionTrie(names, weights, 1_000);
+
+        for (String prefix : List.of("f", "flavour", "flavour 1", "1", "19")) {
+            assertThat(precomputed.complete(prefix, 5)).as(prefix).isEqualTo(sorted.complete(prefix, 5));
+        }
+        // Weights 100, 100, 99, 99, 98; equal weights put the shorter name first
+        assertThat(precomputed.complete("flavour", 5))
+                .containsExactly("Flavour 30", "Flavour 131", "Flavour 60", "Flavour 161", "Flavour 90");
+    }
+
+    @Test
+    void skipsEntriesWithoutAName() {
+        CompletionTrie trie = new CompletionTrie(Arrays.asList(null, "Egg"), List.of(5L, 1L), 20);
+
+        assertThat(trie.complete("e", 10)).containsExactly("Egg");
+    }
+
+    private static CompletionTrie trie(int maxResults, Object... entries) {
+        List<String> names = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            names.add((String) entries[i]);
+            weights.add((Long) entries[i + 1]);
+        }
+        return new CompletionTrie(names, weights, maxResults);
+    }
+}
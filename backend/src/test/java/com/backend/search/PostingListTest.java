@@ -0,0 +1,83 @@
+package com.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void roundTripsIdsAcrossEveryVarintLength() {
+        int[] ids = { 0, 1, 128, 129, 16_513, 16_514, 2_113_666, 2_113_667, 270_549_123, 270_549_124,
+                Integer.MAX_VALUE };
+        // Gaps: 1 (from -1), 1, 127, 1, 2^14, 1, 2^21, 1, 2^28, 1, more than 2^28
+        int[] expectedBytes = { 1, 1, 1, 1, 3, 1, 4, 1, 5, 1, 5 };
+        PostingList postings = new PostingList();
+
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(postings.add(ids[i])).as("bytes for %d", ids[i]).isEqualTo(expectedBytes[i]);
+        }
+
+        assertThat(read(postings)).containsExactly(0, 1, 128, 129, 16_513, 16_514, 2_113_666, 2_113_667,
+                270_549_123, 270_549_124, Integer.MAX_VALUE);
+        assertThat(postings.count()).isEqualTo(ids.length);
+    }
+
+    @Test
+    void encodesTheLargestGapOfEachLengthInThatLength() {
+        PostingList postings = new PostingList();
+
+        assertThat(postings.add(126)).isEqualTo(1);
+        assertThat(postings.add(126 + 16_383)).isEqualTo(2);
+        assertThat(postings.add(126 + 16_383 + 2_097_151)).isEqualTo(3);
+        assertThat(postings.add(126 + 16_383 + 2_097_151 + 268_435_455)).isEqualTo(4);
+
+        assertThat(read(postings)).containsExactly(126, 16_509, 2_113_660, 270_549_115);
+    }
+
+    @Test
+    void ignoresRepeatedAndOutOfOrderIds() {
+        PostingList postings = new PostingList();
+        postings.add(5);
+
+        assertThat(postings.add(5)).isZero();
+        assertThat(postings.add(3)).isZero();
+        assertThat(read(postings)).containsExactly(5);
+        assertThat(postings.count()).isEqualTo(1);
+    }
+
+    @Test
+    void readersSeeAConsistentPrefixWhileTheWriterAppends() throws Exception {
+        PostingList postings = new PostingList();
+        AtomicReference<AssertionError> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            for (int round = 0; round < 2_000 && failure.get() == null; round++) {
+                List<Integer> seen = read(postings);
+                for (int i = 0; i < seen.size(); i++) {
+                    if (seen.get(i) != i * 3) {
+                        failure.set(new AssertionError("Read " + seen.get(i) + " at position " + i));
+                        break;
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int id = 0; id < 300_000; id += 3) {
+            postings.add(id);
+        }
+        reader.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(postings.count()).isEqualTo(100_000);
+    }
+
+    private static List<Integer> read(PostingList postings) {
+        List<Integer> ids = new ArrayList<>();
+        postings.forEach(ids::add);
+        return ids;
+    }
+}